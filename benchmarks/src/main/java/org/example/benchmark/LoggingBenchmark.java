@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.models.Order;
+import org.example.models.Orders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+    @Param({"1000"})
+    public int orders;
+
+    private final Logger enabledLogger = LoggerFactory.getLogger(LoggingBenchmark.class);
+    private final Logger disabledLogger = LoggerFactory.getLogger(PipelineBenchmark.class);
+    private Orders generated;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generated = new OrdersGenerator(orders, 10, 5, 42).generate();
+    }
+
+    @Benchmark
+    public void formattedLinePerOrder() {
+        for (Order order : generated.getOrders()) {
+            enabledLogger.info(String.format("Start order %s", order.getID()));
+        }
+    }
+
+    @Benchmark
+    public void parameterizedLinePerOrder() {
+        for (Order order : generated.getOrders()) {
+            enabledLogger.info("Start order {}", order.getID());
+        }
+    }
+
+    @Benchmark
+    public void summaryLinePerFile() {
+        int products = 0;
+        for (Order order : generated.getOrders()) {
+            products += order.getProducts().size();
+        }
+        enabledLogger.info("{} products of {} orders have been filtered into {} suppliers", products, generated.getOrders().size(), 5);
+    }
+
+    @Benchmark
+    public void formattedDisabledDebug() {
+        for (Order order : generated.getOrders()) {
+            disabledLogger.debug(String.format("Start order %s", order.getID()));
+        }
+    }
+
+    @Benchmark
+    public void parameterizedDisabledDebug() {
+        for (Order order : generated.getOrders()) {
+            disabledLogger.debug("Start order {}", order.getID());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.benchmark;
+
+import org.example.models.Order;
+import org.example.models.Orders;
+import org.example.models.Price;
+import org.example.models.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OrdersGenerator {
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP"};
+    private static final LocalDateTime START = LocalDateTime.of(2022, 7, 12, 15, 29, 33);
+
+    private final int orders;
+    private final int productsPerOrder;
+    private final int suppliers;
+    private final long seed;
+
+    public OrdersGenerator(int orders, int productsPerOrder, int suppliers, long seed) {
+        this.orders = orders;
+        this.productsPerOrder = productsPerOrder;
+        this.suppliers = suppliers;
+        this.seed = seed;
+    }
+
+    public Orders generate() {
+        Random random = new Random(seed);
+        List<Order> orderList = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            List<Product> products = new ArrayList<>(productsPerOrder);
+            for (int j = 0; j < productsPerOrder; j++) {
+                int supplier = random.nextInt(suppliers);
+                products.add(new Product(
+                        String.format("Supplier%d product %d with a typical length description", supplier, random.nextInt(10_000)),
+                        String.format("%014d", random.nextLong(100_000_000_000_000L)),
+                        new Price(CURRENCIES[random.nextInt(CURRENCIES.length)], random.nextInt(1_000_000) / 100F),
+                        String.format("Supplier%d", supplier),
+                        null));
+            }
+            orderList.add(new Order(START.plusMinutes(i), i + 1, products));
+        }
+        return new Orders(orderList);
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.benchmark;
+
+import org.example.configuration.BindingEngine;
+import org.example.controllers.FileScanner;
+import org.example.models.Orders;
+import org.example.models.ProductColumns;
+import org.example.models.SupplierProducts;
+import org.example.service.DirectBufferOutputStream;
+import org.example.service.OutputIoScheduler;
+import org.example.service.SerializationService;
+import org.example.service.XmlWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.TransformerException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+    @Param({"1000"})
+    public int orders;
+
+    @Param({"10"})
+    public int productsPerOrder;
+
+    @Param({"5", "100"})
+    public int suppliers;
+
+    @Param({"XSTREAM", "STAX"})
+    public BindingEngine bindingEngine;
+
+    private SerializationService<Orders> ordersSerializationService;
+    private SerializationService<SupplierProducts> productsSerializationService;
+    private XmlWriter xmlWriter;
+    private OutputIoScheduler ioScheduler;
+    private FileScanner fileScanner;
+    private OrdersGenerator generator;
+    private Path inputFile;
+    private List<SupplierProducts> suppliersProducts;
+    private List<String> serialized;
+    private List<String> outputPaths;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ordersSerializationService = new SerializationService<>(bindingEngine);
+        productsSerializationService = new SerializationService<>(bindingEngine);
+        xmlWriter = new XmlWriter();
+        ioScheduler = OutputIoScheduler.getInstance();
+        fileScanner = new FileScanner(ordersSerializationService, productsSerializationService, xmlWriter);
+        generator = new OrdersGenerator(orders, productsPerOrder, suppliers, 42);
+
+        inputFile = Files.createTempFile("orders", ".xml");
+        Files.writeString(inputFile, ordersSerializationService.serialize(generator.generate()));
+
+        suppliersProducts = fileScanner.getSuppliersProducts(generator.generate());
+        serialized = new ArrayList<>();
+        outputPaths = new ArrayList<>();
+        for (SupplierProducts supplierProducts : suppliersProducts) {
+            serialized.add(productsSerializationService.serialize(supplierProducts));
+            outputPaths.add(xmlWriter.createXmlFile(String.format("benchmark-%s", supplierProducts.getSupplier())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile);
+        for (String outputPath : outputPaths) {
+            Files.deleteIfExists(Path.of(outputPath));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshOrders {
+        Orders orders;
+
+        @Setup(Level.Invocation)
+        public void generate(PipelineBenchmark benchmark) {
+            orders = benchmark.generator.generate();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CompactFiles {
+        @Setup(Level.Invocation)
+        public void write(PipelineBenchmark benchmark) throws IOException {
+            benchmark.writeXmlFile();
+        }
+    }
+
+    @Benchmark
+    public Orders deserialize() {
+        return ordersSerializationService.deserialize(inputFile.toFile());
+    }
+
+    @Benchmark
+    public List<SupplierProducts> group(FreshOrders freshOrders) {
+        return fileScanner.getSuppliersProducts(freshOrders.orders);
+    }
+
+    @Benchmark
+    public ProductColumns deserializeColumns() {
+        return ordersSerializationService.deserializeColumns(inputFile.toFile());
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) {
+        for (SupplierProducts supplierProducts : suppliersProducts) {
+            blackhole.consume(productsSerializationService.serialize(supplierProducts));
+        }
+    }
+
+    @Benchmark
+    public void serializeToFile(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < outputPaths.size(); i++) {
+            try (DirectBufferOutputStream outputStream = ioScheduler.open(Path.of(outputPaths.get(i)), false)) {
+                productsSerializationService.serialize(suppliersProducts.get(i), outputStream);
+                blackhole.consume(outputStream.size());
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeXmlFile() throws IOException {
+        for (int i = 0; i < outputPaths.size(); i++) {
+            xmlWriter.writeXmlFile(outputPaths.get(i), serialized.get(i));
+        }
+    }
+
+    @Benchmark
+    public void prettifyXmlFile(CompactFiles compactFiles) throws IOException, SAXException, TransformerException {
+        for (String outputPath : outputPaths) {
+            xmlWriter.prettifyXmlFile(outputPath);
+        }
+    }
+
+    @Benchmark
+    public void writePrettyXmlFile() throws IOException {
+        for (int i = 0; i < outputPaths.size(); i++) {
+            SupplierProducts supplierProducts = suppliersProducts.get(i);
+            xmlWriter.writePrettyXmlFile(outputPaths.get(i), writer -> productsSerializationService.serialize(supplierProducts, writer));
+        }
+    }
+}
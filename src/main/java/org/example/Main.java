@@ -1,8 +1,15 @@
 package org.example;
 
+import org.example.configuration.Configuration;
+import org.example.controllers.BatchProcessor;
 import org.example.controllers.FileScanner;
+import org.example.metrics.MetricsHttpServer;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.BatchSummary;
 import org.example.models.Orders;
 import org.example.models.SupplierProducts;
+import org.example.service.OutputIoScheduler;
+import org.example.service.ResourcePool;
 import org.example.service.SerializationService;
 import org.example.service.XmlWriter;
 import org.slf4j.Logger;
@@ -11,8 +18,30 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 
 public class Main {
+    private static final String BATCH_OPTION = "--batch";
+    private static final String PARALLELISM_OPTION = "--parallelism";
+
     public static void main(String[] args) {
         Logger LOGGER = LoggerFactory.getLogger(Main.class);
+        String batchSource = null;
+        int parallelism = Configuration.getInstance().getBatchParallelism();
+        for (int i = 0; i < args.length; i++) {
+            if (BATCH_OPTION.equals(args[i]) && i + 1 < args.length) {
+                batchSource = args[++i];
+            } else if (PARALLELISM_OPTION.equals(args[i]) && i + 1 < args.length) {
+                String workers = args[++i];
+                try {
+                    parallelism = Configuration.workersOrAvailableProcessors(Integer.parseInt(workers));
+                } catch (NumberFormatException e) {
+                    LOGGER.error("Invalid {} value {} - expected a number of workers, 0 for the number of processors", PARALLELISM_OPTION, workers);
+                    System.exit(2);
+                }
+            } else {
+                LOGGER.error("Unknown argument {} - usage: [{} <directory|glob> [{} <workers>]]", args[i], BATCH_OPTION, PARALLELISM_OPTION);
+                System.exit(2);
+            }
+        }
+
         LOGGER.debug("Start creating serialization services");
         SerializationService<Orders> ordersSerializationService = new SerializationService<>();
         LOGGER.debug("Orders Serialization Service created");
@@ -27,12 +56,87 @@ public class Main {
         FileScanner scanner = new FileScanner(ordersSerializationService, productsSerializationService, xmlWriter);
         LOGGER.debug("File Scanner created");
 
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        registerPoolGauges(metrics, "orders_xstream", ordersSerializationService.getXStreamPool());
+        registerPoolGauges(metrics, "products_xstream", productsSerializationService.getXStreamPool());
+        registerPoolGauges(metrics, "transformer", xmlWriter.getTransformerPool());
+        registerPoolGauges(metrics, "document_builder", xmlWriter.getDocumentBuilderPool());
+        registerPoolGauges(metrics, "output_buffer", OutputIoScheduler.getInstance().getBufferPool());
+        MetricsHttpServer metricsHttpServer = startMetrics(metrics);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            LOGGER.info(String.valueOf(ordersSerializationService.getXStreamPool()));
+            LOGGER.info(String.valueOf(productsSerializationService.getXStreamPool()));
+            LOGGER.info(String.valueOf(xmlWriter.getTransformerPool()));
+            LOGGER.info(String.valueOf(xmlWriter.getDocumentBuilderPool()));
+            LOGGER.info(String.valueOf(OutputIoScheduler.getInstance().getBufferPool()));
+        }));
+
+        if (batchSource != null) {
+            int exitCode = runBatch(new BatchProcessor(scanner, parallelism), batchSource, metricsHttpServer);
+            System.exit(exitCode);
+        }
+
         LOGGER.debug("Start scanning");
         try {
             scanner.watch();
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
+        } finally {
+            if (metricsHttpServer != null) {
+                metricsHttpServer.stop();
+            }
         }
         LOGGER.debug("Application has been stopped");
     }
+
+    private static int runBatch(BatchProcessor batchProcessor, String source, MetricsHttpServer metricsHttpServer) {
+        Logger LOGGER = LoggerFactory.getLogger(Main.class);
+        try {
+            BatchSummary summary = batchProcessor.run(source);
+            return summary.getFailedFiles() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            LOGGER.error("Batch could not be run on {} - {}", source, e.getMessage());
+            return 2;
+        } catch (InterruptedException e) {
+            LOGGER.error("Batch has been interrupted - {}", e.getMessage());
+            Thread.currentThread().interrupt();
+            return 2;
+        } finally {
+            if (metricsHttpServer != null) {
+                metricsHttpServer.stop();
+            }
+        }
+    }
+
+    private static MetricsHttpServer startMetrics(MetricsRegistry metrics) {
+        Logger LOGGER = LoggerFactory.getLogger(Main.class);
+        Configuration configuration = Configuration.getInstance();
+        if (!metrics.isEnabled()) {
+            return null;
+        }
+        if (configuration.isMetricsJmx()) {
+            metrics.registerMBean();
+        }
+        if (configuration.getMetricsHttpPort() <= 0) {
+            return null;
+        }
+        try {
+            MetricsHttpServer server = new MetricsHttpServer(metrics, configuration.getMetricsHttpHost(), configuration.getMetricsHttpPort());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            LOGGER.error("Metrics endpoint could not be started - {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void registerPoolGauges(MetricsRegistry metrics, String name, ResourcePool<?> pool) {
+        metrics.gauge(String.format("pool_%s_idle", name), "Idle pooled instances", pool::getIdle);
+        metrics.gauge(String.format("pool_%s_created", name), "Pooled instances created", pool::getCreated);
+        metrics.gauge(String.format("pool_%s_borrows", name), "Pooled instances borrowed", pool::getBorrows);
+        metrics.gauge(String.format("pool_%s_misses", name), "Borrows that had to create a new instance", pool::getMisses);
+        metrics.gauge(String.format("pool_%s_borrow_nanos_total", name), "Nanoseconds spent borrowing pooled instances", pool::getBorrowNanos);
+        metrics.gauge(String.format("pool_%s_borrow_nanos_max", name), "Longest single borrow in nanoseconds", pool::getMaxBorrowNanos);
+    }
 }
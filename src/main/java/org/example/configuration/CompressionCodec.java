@@ -0,0 +1,26 @@
+package org.example.configuration;
+
+public enum CompressionCodec {
+    NONE(""),
+    GZIP(".gz"),
+    ZSTD(".zst");
+
+    private final String extension;
+
+    CompressionCodec(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static CompressionCodec fromFileName(String fileName) {
+        for (CompressionCodec codec : values()) {
+            if (codec != NONE && fileName.endsWith(codec.extension)) {
+                return codec;
+            }
+        }
+        return NONE;
+    }
+}
@@ -2,6 +2,9 @@ package org.example.configuration;
 
 import lombok.Getter;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 @Getter
@@ -9,15 +12,132 @@ public class Configuration {
     private static Configuration instance = null;
     private final String outputDirectory;
     private final String inputDirectory;
+    private final List<InputRoute> inputRoutes;
+    private final boolean inputRecursive;
     private final String inputFileNamePrefix;
     private final String inputFileExtension;
+    private final boolean streamingMode;
+    private final long inputMmapThresholdBytes;
+    private final int inputMmapChunkBytes;
+    private final BindingEngine bindingEngine;
+    private final GroupingMode groupingMode;
+    private final int internCacheSize;
+    private final int internMaxLength;
+    private final int outputWorkers;
+    private final int outputQueueSize;
+    private final int outputIoThreads;
+    private final int outputBufferBytes;
+    private final int outputBuffersPerFile;
+    private final int ingestionWorkers;
+    private final int ingestionQueueSize;
+    private final int batchParallelism;
+    private final SchedulingPolicy schedulingPolicy;
+    private final long schedulingSizePenaltyMillisPerMegabyte;
+    private final int poolMaxIdle;
+    private final int poolWarmUp;
+    private final String journalFile;
+    private final String fingerprintCacheFile;
+    private final int fingerprintCacheSize;
+    private final boolean validationEnabled;
+    private final String validationSchema;
+    private final String quarantineDirectory;
+    private final int retryMaxAttempts;
+    private final long retryInitialDelayMillis;
+    private final long retryMaxDelayMillis;
+    private final String errorDirectory;
+    private final ReadinessStrategy readinessStrategy;
+    private final long readinessQuietPeriodMillis;
+    private final long readinessPollIntervalMillis;
+    private final int readinessMaxPending;
+    private final FsyncPolicy outputFsync;
+    private final CompressionCodec outputCompression;
+    private final int outputCompressionLevel;
+    private final int outputFsyncBatchSize;
+    private final boolean aggregationMode;
+    private final String aggregationPeriodPattern;
+    private final long aggregationMaxFileBytes;
+    private final long aggregationIdleCloseMillis;
+    private final int aggregationMaxOpenFiles;
+    private final boolean metricsEnabled;
+    private final boolean metricsJmx;
+    private final String metricsHttpHost;
+    private final int metricsHttpPort;
 
     private Configuration() {
         ResourceBundle resource = ResourceBundle.getBundle("scan");
         outputDirectory = resource.getString("output_directory");
         inputDirectory = resource.getString("input_directory");
+        inputRoutes = parseInputRoutes(resource.getString("input_routes"));
+        inputRecursive = Boolean.parseBoolean(resource.getString("input_recursive"));
         inputFileNamePrefix = resource.getString("input_file_name_prefix");
         inputFileExtension = resource.getString("file_extension");
+        streamingMode = Boolean.parseBoolean(resource.getString("streaming_mode"));
+        inputMmapThresholdBytes = Long.parseLong(resource.getString("input_mmap_threshold_bytes"));
+        inputMmapChunkBytes = Integer.parseInt(resource.getString("input_mmap_chunk_bytes"));
+        bindingEngine = BindingEngine.valueOf(resource.getString("binding_engine").toUpperCase());
+        groupingMode = GroupingMode.valueOf(resource.getString("grouping_mode").toUpperCase());
+        internCacheSize = Integer.parseInt(resource.getString("intern_cache_size"));
+        internMaxLength = Integer.parseInt(resource.getString("intern_max_length"));
+        outputWorkers = workersOrAvailableProcessors(Integer.parseInt(resource.getString("output_workers")));
+        outputQueueSize = Integer.parseInt(resource.getString("output_queue_size"));
+        outputIoThreads = Integer.parseInt(resource.getString("output_io_threads"));
+        outputBufferBytes = Integer.parseInt(resource.getString("output_buffer_bytes"));
+        outputBuffersPerFile = Integer.parseInt(resource.getString("output_buffers_per_file"));
+        ingestionWorkers = workersOrAvailableProcessors(Integer.parseInt(resource.getString("ingestion_workers")));
+        ingestionQueueSize = Integer.parseInt(resource.getString("ingestion_queue_size"));
+        batchParallelism = workersOrAvailableProcessors(Integer.parseInt(resource.getString("batch_parallelism")));
+        schedulingPolicy = SchedulingPolicy.valueOf(resource.getString("scheduling_policy").toUpperCase());
+        schedulingSizePenaltyMillisPerMegabyte = Long.parseLong(resource.getString("scheduling_size_penalty_ms_per_mb"));
+        poolMaxIdle = workersOrAvailableProcessors(Integer.parseInt(resource.getString("pool_max_idle")));
+        poolWarmUp = Integer.parseInt(resource.getString("pool_warm_up"));
+        journalFile = resource.getString("journal_file");
+        fingerprintCacheFile = resource.getString("fingerprint_cache_file");
+        fingerprintCacheSize = Integer.parseInt(resource.getString("fingerprint_cache_size"));
+        validationEnabled = Boolean.parseBoolean(resource.getString("validation_enabled"));
+        validationSchema = resource.getString("validation_schema");
+        quarantineDirectory = resource.getString("quarantine_directory");
+        retryMaxAttempts = Integer.parseInt(resource.getString("retry_max_attempts"));
+        retryInitialDelayMillis = Long.parseLong(resource.getString("retry_initial_delay_ms"));
+        retryMaxDelayMillis = Long.parseLong(resource.getString("retry_max_delay_ms"));
+        errorDirectory = resource.getString("error_directory");
+        readinessStrategy = ReadinessStrategy.valueOf(resource.getString("readiness_strategy").toUpperCase());
+        readinessQuietPeriodMillis = Long.parseLong(resource.getString("readiness_quiet_period_ms"));
+        readinessPollIntervalMillis = Long.parseLong(resource.getString("readiness_poll_interval_ms"));
+        readinessMaxPending = Integer.parseInt(resource.getString("readiness_max_pending"));
+        outputFsync = FsyncPolicy.valueOf(resource.getString("output_fsync").toUpperCase());
+        outputFsyncBatchSize = Integer.parseInt(resource.getString("output_fsync_batch_size"));
+        outputCompression = CompressionCodec.valueOf(resource.getString("output_compression").toUpperCase());
+        outputCompressionLevel = Integer.parseInt(resource.getString("output_compression_level"));
+        aggregationMode = Boolean.parseBoolean(resource.getString("aggregation_mode"));
+        aggregationPeriodPattern = resource.getString("aggregation_period_pattern");
+        aggregationMaxFileBytes = Long.parseLong(resource.getString("aggregation_max_file_bytes"));
+        aggregationIdleCloseMillis = Long.parseLong(resource.getString("aggregation_idle_close_ms"));
+        aggregationMaxOpenFiles = Integer.parseInt(resource.getString("aggregation_max_open_files"));
+        metricsEnabled = Boolean.parseBoolean(resource.getString("metrics_enabled"));
+        metricsJmx = Boolean.parseBoolean(resource.getString("metrics_jmx"));
+        metricsHttpHost = resource.getString("metrics_http_host");
+        metricsHttpPort = Integer.parseInt(resource.getString("metrics_http_port"));
+    }
+
+    private List<InputRoute> parseInputRoutes(String routes) {
+        List<InputRoute> result = new ArrayList<>();
+        result.add(new InputRoute("", Path.of(inputDirectory), Path.of(outputDirectory)));
+        for (String route : routes.split(",")) {
+            if (route.isBlank()) {
+                continue;
+            }
+            String[] directories = route.split("=", 2);
+            Path input = Path.of(directories[0].trim());
+            Path output = directories.length > 1
+                    ? Path.of(directories[1].trim())
+                    : Path.of(outputDirectory).resolve(input.getFileName());
+            result.add(new InputRoute(directories[0].trim(), input, output));
+        }
+        return List.copyOf(result);
+    }
+
+    public static int workersOrAvailableProcessors(int workers) {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
     }
 
     public static Configuration getInstance() {
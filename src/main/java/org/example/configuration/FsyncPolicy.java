@@ -0,0 +1,7 @@
+package org.example.configuration;
+
+public enum FsyncPolicy {
+    NONE,
+    ALWAYS,
+    BATCH
+}
@@ -0,0 +1,6 @@
+package org.example.configuration;
+
+public enum GroupingMode {
+    OBJECTS,
+    COLUMNAR
+}
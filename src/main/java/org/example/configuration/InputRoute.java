@@ -0,0 +1,44 @@
+package org.example.configuration;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+public class InputRoute {
+    private final String name;
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+
+    public InputRoute(String name, Path inputDirectory, Path outputDirectory) {
+        this.name = name;
+        this.inputDirectory = inputDirectory.toAbsolutePath().normalize();
+        this.outputDirectory = outputDirectory.toAbsolutePath().normalize();
+    }
+
+    public boolean contains(Path file) {
+        return file.toAbsolutePath().normalize().startsWith(inputDirectory);
+    }
+
+    public Path outputDirectoryOf(Path file) {
+        Path normalized = file.toAbsolutePath().normalize();
+        if (!normalized.startsWith(inputDirectory) || normalized.getParent() == null) {
+            return outputDirectory;
+        }
+        return outputDirectory.resolve(inputDirectory.relativize(normalized.getParent())).normalize();
+    }
+
+    public String journalKey(Path file) {
+        String relative = inputDirectory.relativize(file.toAbsolutePath().normalize()).toString();
+        return name.isEmpty() ? relative : String.format("%s/%s", name, relative);
+    }
+
+    @Override
+    public String toString() {
+        return "InputRoute{" +
+                "name='" + name + '\'' +
+                ", inputDirectory=" + inputDirectory +
+                ", outputDirectory=" + outputDirectory +
+                '}';
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.configuration;
+
+public enum ReadinessStrategy {
+    NONE,
+    STABLE_SIZE,
+    DONE_MARKER
+}
@@ -0,0 +1,8 @@
+package org.example.configuration;
+
+public enum SchedulingPolicy {
+    FIFO,
+    OLDEST_FIRST,
+    SMALLEST_FIRST,
+    FAIR_SHARE
+}
@@ -0,0 +1,118 @@
+package org.example.controllers;
+
+import org.example.configuration.Configuration;
+import org.example.configuration.InputRoute;
+import org.example.models.BatchSummary;
+import org.example.models.FileProcessingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class BatchProcessor {
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final FileScanner fileScanner;
+    private final int parallelism;
+    private final Path outputDirectory;
+    private final Logger LOGGER;
+
+    public BatchProcessor(FileScanner fileScanner, int parallelism) {
+        this(fileScanner, parallelism, Path.of(Configuration.getInstance().getOutputDirectory()));
+    }
+
+    public BatchProcessor(FileScanner fileScanner, int parallelism, Path outputDirectory) {
+        this.LOGGER = LoggerFactory.getLogger(BatchProcessor.class);
+        this.fileScanner = fileScanner;
+        this.parallelism = parallelism;
+        this.outputDirectory = outputDirectory;
+    }
+
+    public BatchSummary run(String source) throws IOException, InterruptedException {
+        List<Path> files = resolveFiles(source);
+        InputRoute route = new InputRoute("", baseOf(source), outputDirectory);
+        LOGGER.info("Batch of {} files from {} started with {} workers", files.size(), source, parallelism);
+        BatchSummary summary = new BatchSummary();
+        long start = System.nanoTime();
+        ProcessingPipeline pipeline = new ProcessingPipeline(parallelism, parallelism, file -> process(file, route, summary));
+        try {
+            for (Path file : files) {
+                pipeline.submit(file);
+            }
+        } finally {
+            pipeline.shutdown(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            fileScanner.close();
+        }
+        summary.finish(System.nanoTime() - start);
+        LOGGER.info("Batch finished: {} files ({} failed), {} products, {} suppliers, {} bytes in {} ms",
+                summary.getFiles(), summary.getFailedFiles(), summary.getProducts(), summary.getSupplierCount(),
+                summary.getBytes(), summary.getWallNanos() / 1_000_000);
+        LOGGER.info("Batch throughput: {} files/s, {} products/s, {} MB/s",
+                String.format("%.1f", summary.getFilesPerSecond()),
+                String.format("%.0f", summary.getProductsPerSecond()),
+                String.format("%.2f", summary.getMegabytesPerSecond()));
+        return summary;
+    }
+
+    private void process(Path file, InputRoute route, BatchSummary summary) {
+        try {
+            Path fileOutputDirectory = route.outputDirectoryOf(file);
+            Files.createDirectories(fileOutputDirectory);
+            FileProcessingResult result = fileScanner.handleEvent(String.valueOf(file.getFileName()),
+                    String.valueOf(file.getParent()), fileOutputDirectory);
+            summary.add(result);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("File {} could not be processed - {}", file, e.getMessage(), e);
+            summary.addFailure();
+        }
+    }
+
+    public List<Path> resolveFiles(String source) throws IOException {
+        Path directory = Path.of(source);
+        if (Files.isRegularFile(directory)) {
+            return List.of(directory);
+        }
+        PathMatcher matcher = null;
+        if (!Files.isDirectory(directory)) {
+            directory = globBase(source);
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + source);
+        }
+        PathMatcher globMatcher = matcher;
+        try (Stream<Path> paths = globMatcher == null ? Files.list(directory) : Files.walk(directory)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter(file -> globMatcher == null || globMatcher.matches(file.normalize()))
+                    .filter(file -> fileScanner.validateFileNamePattern(String.valueOf(file.getFileName())))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList();
+        }
+    }
+
+    private Path baseOf(String source) {
+        Path path = Path.of(source);
+        if (Files.isRegularFile(path)) {
+            return path.toAbsolutePath().getParent();
+        }
+        return Files.isDirectory(path) ? path : globBase(source);
+    }
+
+    private Path globBase(String glob) {
+        int wildcard = glob.length();
+        for (char character : GLOB_CHARACTERS.toCharArray()) {
+            int index = glob.indexOf(character);
+            if (index >= 0) {
+                wildcard = Math.min(wildcard, index);
+            }
+        }
+        int separator = glob.lastIndexOf('/', wildcard);
+        return Path.of(separator < 0 ? "." : glob.substring(0, separator + 1));
+    }
+}
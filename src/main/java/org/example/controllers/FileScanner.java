@@ -1,97 +1,483 @@
 package org.example.controllers;
 
 import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
+import org.example.configuration.CompressionCodec;
 import org.example.configuration.Configuration;
+import org.example.configuration.GroupingMode;
+import org.example.configuration.InputRoute;
+import org.example.configuration.ReadinessStrategy;
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
+import org.example.models.FileProcessingResult;
+import org.example.models.Order;
 import org.example.models.Orders;
+import org.example.models.OutputFileResult;
+import org.example.models.Product;
+import org.example.models.ProductColumns;
 import org.example.models.SupplierProducts;
+import org.example.service.FileChecksum;
+import org.example.service.Quarantine;
+import org.example.service.SchemaValidator;
 import org.example.service.SerializationService;
+import org.example.service.StreamingOrderSplitter;
+import org.example.service.SupplierFileAggregator;
 import org.example.service.XmlWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class FileScanner {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
     private final SerializationService<Orders> ordersSerializationService;
     private final SerializationService<SupplierProducts> productsSerializationService;
     private final XmlWriter xmlWriter;
+    private final StreamingOrderSplitter orderSplitter;
+    private final SchemaValidator schemaValidator;
+    private final Quarantine quarantine;
+    private final Map<Path, SupplierFileAggregator> aggregators;
+    private final ThreadPoolExecutor outputExecutor;
+    private final Set<Path> pendingFiles;
+    private final MetricsRegistry metrics;
+    private final Timer detectionTimer;
+    private final Timer fileTimer;
+    private final Timer groupTimer;
+    private final Timer splitTimer;
+    private final Counter filesDetected;
+    private final Counter filesProcessed;
+    private final Counter filesFailed;
+    private final Counter filesSkipped;
+    private final Counter filesQuarantined;
+    private final Counter filesDuplicate;
+    private final Counter ordersCounter;
+    private final Counter productsCounter;
+    private final Counter supplierFilesCreated;
+    private final Counter supplierFilesFailed;
     private final Logger LOGGER;
     private final Configuration configuration;
+    private final boolean inputRecursive;
 
     public FileScanner(SerializationService<Orders> ordersSerializationService, SerializationService<SupplierProducts> productsSerializationService, XmlWriter xmlWriter) {
+        this(ordersSerializationService, productsSerializationService, xmlWriter, Configuration.getInstance().isInputRecursive());
+    }
+
+    public FileScanner(SerializationService<Orders> ordersSerializationService, SerializationService<SupplierProducts> productsSerializationService, XmlWriter xmlWriter, boolean inputRecursive) {
         this.ordersSerializationService = ordersSerializationService;
         this.productsSerializationService = productsSerializationService;
         this.xmlWriter = xmlWriter;
+        this.orderSplitter = new StreamingOrderSplitter(xmlWriter);
         this.LOGGER = LoggerFactory.getLogger(FileScanner.class);
         configuration = Configuration.getInstance();
+        this.inputRecursive = inputRecursive;
+        this.aggregators = new ConcurrentHashMap<>();
+        this.schemaValidator = configuration.isValidationEnabled() ? new SchemaValidator() : null;
+        this.quarantine = new Quarantine();
+        if (configuration.isAggregationMode() && configuration.getOutputCompression() != CompressionCodec.NONE) {
+            LOGGER.warn("Aggregated supplier files are appended in place and are written without {} compression",
+                    configuration.getOutputCompression());
+        }
+        this.outputExecutor = createOutputExecutor();
+        this.pendingFiles = ConcurrentHashMap.newKeySet();
+        this.metrics = MetricsRegistry.getInstance();
+        this.detectionTimer = metrics.timer("detection_seconds", "Time from detecting an input file until it is ready to be processed");
+        this.fileTimer = metrics.timer("file_seconds", "Time spent processing one input file");
+        this.groupTimer = metrics.timer("group_seconds", "Time spent grouping the products of one input file by supplier");
+        this.splitTimer = metrics.timer("split_seconds", "Time spent splitting one input file in streaming mode");
+        this.filesDetected = metrics.counter("files_detected_total", "Input files detected by the startup scan and the watcher");
+        this.filesProcessed = metrics.counter("files_processed_total", "Input files processed successfully");
+        this.filesFailed = metrics.counter("files_failed_total", "Input files that could not be processed");
+        this.filesSkipped = metrics.counter("files_skipped_total", "Input files skipped because they were already processed");
+        this.filesDuplicate = metrics.counter("files_duplicate_total", "Input files identical to an already processed file whose outputs were linked instead");
+        this.filesQuarantined = metrics.counter("files_quarantined_total", "Input files moved to quarantine because they failed schema validation");
+        this.ordersCounter = metrics.counter("orders_total", "Orders read from input files");
+        this.productsCounter = metrics.counter("products_total", "Products read from input files");
+        this.supplierFilesCreated = metrics.counter("supplier_files_total", "Supplier files written");
+        this.supplierFilesFailed = metrics.counter("supplier_files_failed_total", "Supplier files that could not be written");
+        metrics.gauge("pending_files", "Input files detected and not processed yet", pendingFiles::size);
+        metrics.gauge("output_queue_depth", "Supplier files waiting for an output writer", () -> outputExecutor.getQueue().size());
+        metrics.gauge("output_active_writers", "Output writers currently writing a supplier file", outputExecutor::getActiveCount);
         createInputFolderIfNotExists();
     }
 
+    private ThreadPoolExecutor createOutputExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                configuration.getOutputWorkers(),
+                configuration.getOutputWorkers(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(configuration.getOutputQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, String.format("output-writer-%d", threadNumber.incrementAndGet()));
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     public void watch() throws IOException, InterruptedException {
         LOGGER.debug("Initializing WatchService");
         try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
             Map<WatchKey, Path> keyMap = new HashMap<>();
             LOGGER.debug("WatchService initialized ");
 
-            Path path = Paths.get(configuration.getInputDirectory());
-            keyMap.put(path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE), path);
-            WatchKey watchKey;
-            LOGGER.info("Start scanning...");
-            do {
-                watchKey = watcher.take();
-                Path eventDir = keyMap.get(watchKey);
-                for (WatchEvent<?> event : watchKey.pollEvents()) {
-                    Path eventPath = (Path) event.context();
-                    LOGGER.info(String.format("File %s has been found!", eventPath));
-
-                    if (validateFileNamePattern(String.valueOf(eventPath.getFileName())))
-                        handleEvent(String.valueOf(eventPath), String.valueOf(eventDir));
+            List<InputRoute> routes = configuration.getInputRoutes();
+            for (InputRoute route : routes) {
+                register(route.getInputDirectory(), watcher, keyMap);
+                Files.createDirectories(route.getOutputDirectory());
+            }
+            ProcessingJournal journal = new ProcessingJournal(Path.of(configuration.getJournalFile()));
+            FingerprintCache fingerprints = new FingerprintCache(Path.of(configuration.getFingerprintCacheFile()), configuration.getFingerprintCacheSize());
+            metrics.gauge("fingerprint_cache_entries", "Input fingerprints remembered to detect duplicate input files", fingerprints::size);
+            RetryScheduler retryScheduler = new RetryScheduler(
+                    configuration.getRetryMaxAttempts(),
+                    configuration.getRetryInitialDelayMillis(),
+                    configuration.getRetryMaxDelayMillis(),
+                    new Quarantine(Path.of(configuration.getErrorDirectory()), Clock.systemUTC()));
+            ProcessingPipeline pipeline = createProcessingPipeline(journal, fingerprints, retryScheduler);
+            retryScheduler.start(file -> resubmit(file, pipeline));
+            metrics.gauge("ingestion_queue_depth", "Input files waiting for an ingestion worker", pipeline::getQueueDepth);
+            metrics.gauge("files_in_flight", "Input files currently being processed", pipeline::getInFlight);
+            ReadinessMonitor readinessMonitor = new ReadinessMonitor(
+                    configuration.getReadinessStrategy(),
+                    configuration.getReadinessQuietPeriodMillis(),
+                    configuration.getReadinessPollIntervalMillis(),
+                    configuration.getReadinessMaxPending());
+            metrics.gauge("readiness_pending", "Input files waiting to be ready or to be handed to the pipeline", readinessMonitor::getPending);
+            try {
+                for (InputRoute route : routes) {
+                    catchUp(route.getInputDirectory(), pipeline, readinessMonitor);
                 }
-            } while (watchKey.reset());
+                LOGGER.info("Start scanning {} input roots...", routes.size());
+                while (!keyMap.isEmpty()) {
+                    WatchKey watchKey = watcher.take();
+                    Path eventDir = keyMap.get(watchKey);
+                    for (WatchEvent<?> event : watchKey.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            LOGGER.warn("Events of folder {} have been lost, rescanning it", eventDir);
+                            catchUp(eventDir, pipeline, readinessMonitor);
+                            continue;
+                        }
+                        Path eventPath = eventDir.resolve((Path) event.context());
+                        if (inputRecursive && Files.isDirectory(eventPath, LinkOption.NOFOLLOW_LINKS)) {
+                            LOGGER.info("Folder {} has been found, watching it", eventPath);
+                            register(eventPath, watcher, keyMap);
+                            catchUp(eventPath, pipeline, readinessMonitor);
+                            continue;
+                        }
+                        LOGGER.info("File {} has been found!", eventPath.getFileName());
+
+                        if (readinessMonitor.isDoneMarker(eventPath)) {
+                            eventPath = readinessMonitor.dataFileOf(eventPath);
+                        } else if (readinessMonitor.getStrategy() == ReadinessStrategy.DONE_MARKER) {
+                            continue;
+                        }
+                        if (validateFileNamePattern(String.valueOf(eventPath.getFileName())))
+                            enqueue(eventPath, pipeline, readinessMonitor);
+                    }
+                    if (!watchKey.reset()) {
+                        LOGGER.info("Folder {} is no longer watched", keyMap.remove(watchKey));
+                    }
+                }
+            } finally {
+                readinessMonitor.shutdown();
+                retryScheduler.shutdown();
+                pipeline.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                close();
+                journal.close();
+                fingerprints.close();
+            }
         } catch (IOException e) {
             throw e;
         } catch (InterruptedException e) {
             LOGGER.info("Scan has been stopped");
-            LOGGER.error(String.format("Scan has been interrupted - %s", e.getMessage()));
+            LOGGER.error("Scan has been interrupted - {}", e.getMessage());
             throw e;
         }
     }
 
-    private void createInputFolderIfNotExists() {
-        Path path = Paths.get(configuration.getInputDirectory());
-        LOGGER.debug("Checking for input folder");
-        if (Files.notExists(path)) {
+    public void close() throws IOException {
+        xmlWriter.syncPendingFiles();
+        aggregators.values().forEach(SupplierFileAggregator::close);
+        aggregators.clear();
+    }
+
+    private void register(Path directory, WatchService watcher, Map<WatchKey, Path> keyMap) throws IOException {
+        if (!inputRecursive) {
+            keyMap.put(directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE), directory);
+            return;
+        }
+        List<Path> directories;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            directories = paths.filter(path -> Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)).toList();
+        }
+        for (Path subdirectory : directories) {
+            keyMap.put(subdirectory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE), subdirectory);
+        }
+        LOGGER.debug("{} folders of {} are watched", directories.size(), directory);
+    }
+
+    private InputRoute routeOf(Path file) {
+        InputRoute result = null;
+        for (InputRoute route : configuration.getInputRoutes()) {
+            if (route.contains(file)
+                    && (result == null || route.getInputDirectory().getNameCount() > result.getInputDirectory().getNameCount())) {
+                result = route;
+            }
+        }
+        return result == null ? configuration.getInputRoutes().get(0) : result;
+    }
+
+    private void catchUp(Path inputDirectory, ProcessingPipeline pipeline, ReadinessMonitor readinessMonitor) throws IOException, InterruptedException {
+        List<Path> existingFiles;
+        try (Stream<Path> files = inputRecursive ? Files.walk(inputDirectory) : Files.list(inputDirectory)) {
+            existingFiles = files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> validateFileNamePattern(String.valueOf(file.getFileName())))
+                    .filter(file -> readinessMonitor.getStrategy() != ReadinessStrategy.DONE_MARKER
+                            || readinessMonitor.hasDoneMarker(file))
+                    .sorted(Comparator.comparing(file -> getFileNameNumber(String.valueOf(file.getFileName()))))
+                    .toList();
+        }
+        LOGGER.info("Catching up with {} existing files", existingFiles.size());
+        for (Path file : existingFiles) {
+            enqueue(file, pipeline, readinessMonitor);
+        }
+    }
+
+    private void enqueue(Path file, ProcessingPipeline pipeline, ReadinessMonitor readinessMonitor) throws InterruptedException {
+        if (pendingFiles.add(file.toAbsolutePath())) {
+            filesDetected.increment();
+            long detected = detectionTimer.start();
             try {
-                LOGGER.debug("Creating input folder");
-                Files.createDirectories(path);
-            } catch (IOException e) {
-                LOGGER.error("Input folder could not be created");
-                throw new RuntimeException(e);
+                readinessMonitor.whenReady(file,
+                        readyFile -> {
+                            detectionTimer.stop(detected);
+                            submit(readyFile, pipeline);
+                        },
+                        abandonedFile -> pendingFiles.remove(abandonedFile.toAbsolutePath()));
+            } catch (InterruptedException e) {
+                pendingFiles.remove(file.toAbsolutePath());
+                throw e;
+            }
+        } else {
+            LOGGER.debug("File {} is already waiting to be processed", file);
+        }
+    }
+
+    private void submit(Path file, ProcessingPipeline pipeline) {
+        try {
+            pipeline.submit(file);
+        } catch (InterruptedException e) {
+            LOGGER.warn("File {} was not enqueued because scanning is stopping", file);
+            pendingFiles.remove(file.toAbsolutePath());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void resubmit(Path file, ProcessingPipeline pipeline) {
+        if (pendingFiles.add(file.toAbsolutePath())) {
+            submit(file, pipeline);
+        } else {
+            LOGGER.debug("File {} is already waiting to be processed", file);
+        }
+    }
+
+    private ProcessingPipeline createProcessingPipeline(ProcessingJournal journal, FingerprintCache fingerprints, RetryScheduler retryScheduler) {
+        FileScheduler scheduler = new FileScheduler(
+                configuration.getSchedulingPolicy(),
+                configuration.getSchedulingSizePenaltyMillisPerMegabyte(),
+                file -> routeOf(file).getName(),
+                Clock.systemUTC());
+        return new ProcessingPipeline(
+                configuration.getIngestionWorkers(),
+                configuration.getIngestionQueueSize(),
+                scheduler,
+                file -> processFile(file, journal, fingerprints, retryScheduler));
+    }
+
+    void processFile(Path file, ProcessingJournal journal, FingerprintCache fingerprints, RetryScheduler retryScheduler) {
+        String fileName = String.valueOf(file.getFileName());
+        InputRoute route = routeOf(file);
+        String journalKey = route.journalKey(file);
+        long start = fileTimer.start();
+        try {
+            String checksum = FileChecksum.of(file);
+            if (journal.isProcessed(journalKey, checksum)) {
+                LOGGER.info("File {} has already been processed, skipping", journalKey);
+                filesSkipped.increment();
+                retryScheduler.reset(file);
+                return;
+            }
+            Path outputDirectory = route.outputDirectoryOf(file);
+            Files.createDirectories(outputDirectory);
+            FileProcessingResult result = handleDuplicate(fileName, fingerprints.get(checksum), outputDirectory);
+            if (result == null) {
+                if (schemaValidator != null && !isValid(file)) {
+                    retryScheduler.reset(file);
+                    return;
+                }
+                result = handleEvent(fileName, String.valueOf(file.getParent()), outputDirectory, checksum);
+            }
+            if (!configuration.isAggregationMode()) {
+                fingerprints.forgetOutputs(result.getOutputs());
+            }
+            if (result.isSuccess()) {
+                journal.record(journalKey, result.getFileNumber(), checksum);
+                fingerprints.record(checksum, result);
+                filesProcessed.increment();
+                retryScheduler.reset(file);
+            } else {
+                filesFailed.increment();
+                retryScheduler.failed(file, failureOf(result), isRetryable(result));
+            }
+        } catch (IOException e) {
+            LOGGER.error("File {} could not be processed - {}", fileName, e.getMessage());
+            filesFailed.increment();
+            retryScheduler.failed(file, e, true);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error while processing file {} - {}", fileName, e.getMessage(), e);
+            filesFailed.increment();
+            retryScheduler.failed(file, e, isTransient(e));
+        } finally {
+            pendingFiles.remove(file.toAbsolutePath());
+            fileTimer.stop(start);
+        }
+    }
+
+    private FileProcessingResult handleDuplicate(String fileName, FileProcessingResult original, Path outputDirectory) {
+        if (original == null) {
+            return null;
+        }
+        Integer fileNumber = getFileNameNumber(fileName);
+        if (configuration.isAggregationMode()) {
+            LOGGER.info("File {} is identical to {} whose products have already been aggregated, skipping", fileName, original.getFileName());
+            filesDuplicate.increment();
+            return new FileProcessingResult(fileName, fileNumber, original.getInputBytes(), List.of(), null);
+        }
+        List<OutputFileResult> outputs = new ArrayList<>();
+        try {
+            for (OutputFileResult output : original.getOutputs()) {
+                Path source = Path.of(output.getPath());
+                String sourceName = String.valueOf(source.getFileName());
+                String originalName = String.format("%s%s", output.getSupplier(), original.getFileNumber());
+                if (!sourceName.startsWith(originalName) || Files.notExists(source)) {
+                    LOGGER.info("Supplier file {} of identical file {} is not available, processing file {}", source, original.getFileName(), fileName);
+                    return null;
+                }
+                Path target = outputDirectory.resolve(String.format("%s%s%s", output.getSupplier(), fileNumber, sourceName.substring(originalName.length())));
+                String path = source.equals(target.toAbsolutePath()) ? source.toString() : xmlWriter.linkXmlFile(source, target);
+                outputs.add(new OutputFileResult(output.getSupplier(), path, output.getProductCount(), null));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Supplier files of identical file {} could not be linked, processing file {} - {}", original.getFileName(), fileName, e.getMessage());
+            return null;
+        }
+        LOGGER.info("File {} is identical to {}, {} supplier files have been linked", fileName, original.getFileName(), outputs.size());
+        filesDuplicate.increment();
+        return new FileProcessingResult(fileName, fileNumber, original.getInputBytes(), outputs, null);
+    }
+
+    private Exception failureOf(FileProcessingResult result) {
+        if (result.getError() != null) {
+            return result.getError();
+        }
+        return result.getOutputs().stream()
+                .filter(output -> !output.isSuccess())
+                .map(OutputFileResult::getError)
+                .findFirst()
+                .orElseGet(() -> new IllegalStateException(String.format("File %s failed", result.getFileName())));
+    }
+
+    private boolean isRetryable(FileProcessingResult result) {
+        if (result.getError() != null) {
+            return isTransient(result.getError());
+        }
+        boolean partiallyAppended = configuration.isAggregationMode() && result.getOutputs().stream().anyMatch(OutputFileResult::isSuccess);
+        if (partiallyAppended) {
+            LOGGER.warn("File {} has already been appended for some suppliers and is not retried", result.getFileName());
+            return false;
+        }
+        return result.getOutputs().stream()
+                .filter(output -> !output.isSuccess())
+                .allMatch(output -> isTransient(output.getError()));
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof UncheckedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isValid(Path file) throws IOException {
+        try {
+            schemaValidator.validate(file);
+            return true;
+        } catch (SAXException e) {
+            LOGGER.error("File {} does not match schema {} - {}", file, schemaValidator.getSchemaResource(), e.getMessage());
+            quarantine.move(file, "validation", e);
+            filesQuarantined.increment();
+            return false;
+        }
+    }
+
+    private void createInputFolderIfNotExists() {
+        LOGGER.debug("Checking for input folders");
+        for (InputRoute route : configuration.getInputRoutes()) {
+            Path path = route.getInputDirectory();
+            if (Files.notExists(path)) {
+                try {
+                    LOGGER.debug("Creating input folder {}", path);
+                    Files.createDirectories(path);
+                } catch (IOException e) {
+                    LOGGER.error("Input folder {} could not be created", path);
+                    throw new RuntimeException(e);
+                }
             }
         }
     }
 
     public boolean validateFileNamePattern(String fileName) {
         boolean result;
-        LOGGER.info("Verifying file name");
-        if (!(fileName.startsWith(configuration.getInputFileNamePrefix()) && fileName.endsWith(configuration.getInputFileExtension()))) {
-            LOGGER.info("File name does not meet the requirements");
+        LOGGER.debug("Verifying file name {}", fileName);
+        String baseName = stripCompressionExtension(fileName);
+        if (!(baseName.startsWith(configuration.getInputFileNamePrefix()) && baseName.endsWith(configuration.getInputFileExtension()))) {
+            LOGGER.debug("File name {} does not meet the requirements", fileName);
             result = false;
         } else {
             result = getFileNameNumber(fileName) != null;
@@ -99,69 +485,159 @@ public class FileScanner {
         return result;
     }
 
+    private String stripCompressionExtension(String fileName) {
+        CompressionCodec codec = CompressionCodec.fromFileName(fileName);
+        return fileName.substring(0, fileName.length() - codec.getExtension().length());
+    }
+
     private Integer getFileNameNumber(String fileName) {
         try {
             return Integer.parseInt(
-                    fileName
+                    stripCompressionExtension(fileName)
                             .split(configuration.getInputFileNamePrefix())[1]
                             .split(configuration.getInputFileExtension())[0]
             );
         } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            LOGGER.warn(String.format("File %s does not contain the number", fileName));
+            LOGGER.warn("File {} does not contain the number", fileName);
             return null;
         }
     }
 
-    public void handleEvent(String fileName, String eventDir) {
+    public FileProcessingResult handleEvent(String fileName, String eventDir) {
+        return handleEvent(fileName, eventDir, Path.of(configuration.getOutputDirectory()));
+    }
+
+    public FileProcessingResult handleEvent(String fileName, String eventDir, Path outputDirectory) {
+        return handleEvent(fileName, eventDir, outputDirectory, null);
+    }
+
+    public FileProcessingResult handleEvent(String fileName, String eventDir, Path outputDirectory, String inputId) {
         Integer fileNumber = getFileNameNumber(fileName);
         File inputFile = new File(String.format("%s/%s", eventDir, fileName));
 
+        if (configuration.isStreamingMode()) {
+            return handleEventStreaming(fileName, inputFile, fileNumber, outputDirectory);
+        }
+
         try {
+            if (configuration.getGroupingMode() == GroupingMode.COLUMNAR) {
+                ProductColumns columns = ordersSerializationService.deserializeColumns(inputFile);
+                return new FileProcessingResult(fileName, fileNumber, inputFile.length(),
+                        createOutputFiles(fileNumber, outputDirectory, inputId, getSupplierContents(columns)), null);
+            }
             Orders orders = ordersSerializationService.deserialize(inputFile);
             List<SupplierProducts> suppliersProducts = getSuppliersProducts(orders);
-            createOutputFiles(fileNumber, suppliersProducts);
+            return new FileProcessingResult(fileName, fileNumber, inputFile.length(),
+                    createOutputFiles(fileNumber, outputDirectory, inputId, getSupplierContents(suppliersProducts)), null);
         } catch (AbstractReflectionConverter.UnknownFieldException | CannotResolveClassException e) {
-            LOGGER.error(String.format("Error occurred during deserialization - %s", e.getMessage()));
-            for (StackTraceElement stackTraceElement : e.getStackTrace()) {
-                LOGGER.error(String.valueOf(stackTraceElement));
-            }
+            LOGGER.error("Error occurred during deserialization of file {} - {}", fileName, e.getMessage(), e);
+            return new FileProcessingResult(fileName, fileNumber, inputFile.length(), List.of(), e);
+        }
+    }
+
+    private FileProcessingResult handleEventStreaming(String fileName, File inputFile, Integer fileNumber, Path outputDirectory) {
+        long start = splitTimer.start();
+        try {
+            List<OutputFileResult> outputs = orderSplitter.split(inputFile, fileNumber, outputDirectory);
+            supplierFilesCreated.add(outputs.size());
+            return new FileProcessingResult(fileName, fileNumber, inputFile.length(), outputs, null);
+        } catch (XMLStreamException | IOException e) {
+            LOGGER.error("Error occurred during streaming of file {} - {}", fileName, e.getMessage(), e);
+            return new FileProcessingResult(fileName, fileNumber, inputFile.length(), List.of(), e);
+        } finally {
+            splitTimer.stop(start);
         }
     }
 
-    private void createOutputFiles(Integer fileNumber, List<SupplierProducts> suppliersProducts) {
+    private Map<String, SupplierContent> getSupplierContents(List<SupplierProducts> suppliersProducts) {
+        Map<String, SupplierContent> contents = new LinkedHashMap<>();
+        for (SupplierProducts supplierProducts : suppliersProducts) {
+            contents.put(supplierProducts.getSupplier(), new SupplierContent(supplierProducts.getProducts().size(),
+                    writer -> productsSerializationService.serialize(supplierProducts, writer)));
+        }
+        return contents;
+    }
+
+    private Map<String, SupplierContent> getSupplierContents(ProductColumns columns) {
+        ordersCounter.add(columns.getOrderCount());
+        productsCounter.add(columns.size());
+        LOGGER.info("{} products of {} orders have been filtered into {} suppliers",
+                columns.size(), columns.getOrderCount(), columns.getSupplierCount());
+        Map<String, SupplierContent> contents = new LinkedHashMap<>();
+        for (int supplierId = 0; supplierId < columns.getSupplierCount(); supplierId++) {
+            int id = supplierId;
+            contents.put(columns.getSupplier(id), new SupplierContent(columns.getProductCount(id),
+                    writer -> productsSerializationService.serializeSupplier(columns, id, writer)));
+        }
+        return contents;
+    }
+
+    private List<OutputFileResult> createOutputFiles(Integer fileNumber, Path outputDirectory, String inputId,
+                                                     Map<String, SupplierContent> contents) {
         LOGGER.info("Start creating suppliers output files");
-        suppliersProducts.forEach(supplierProducts -> {
-            String serialized = productsSerializationService.serialize(supplierProducts);
-            String supplierFileName = String.format("%s%s", supplierProducts.getSupplier(), fileNumber);
-            try {
-                String xmlFilePath = xmlWriter.createXmlFile(supplierFileName);
-                xmlWriter.writeXmlFile(xmlFilePath, serialized);
-                xmlWriter.prettifyXmlFile(xmlFilePath);
-            } catch (IOException | SAXException | TransformerException e) {
-                LOGGER.error(String.format("An error occurred - %s", e.getMessage()));
-                for (StackTraceElement stackTraceElement : e.getStackTrace()) {
-                    LOGGER.error(String.valueOf(stackTraceElement));
-                }
+        List<CompletableFuture<OutputFileResult>> futures = new ArrayList<>();
+        contents.forEach((supplier, content) -> futures.add(
+                CompletableFuture.supplyAsync(() -> createOutputFile(fileNumber, outputDirectory, inputId, supplier, content), outputExecutor)));
+
+        List<OutputFileResult> results = futures.stream().map(CompletableFuture::join).toList();
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        supplierFilesCreated.add(results.size() - failed);
+        supplierFilesFailed.add(failed);
+        LOGGER.info("{} of {} supplier files have been created", results.size() - failed, results.size());
+        return results;
+    }
+
+    private OutputFileResult createOutputFile(Integer fileNumber, Path outputDirectory, String inputId, String supplier,
+                                              SupplierContent content) {
+        String supplierFileName = String.format("%s%s", supplier, fileNumber);
+        String xmlFilePath = null;
+        try {
+            if (configuration.isAggregationMode()) {
+                xmlFilePath = aggregatorFor(outputDirectory).append(supplier, inputId, content.writer);
+                return new OutputFileResult(supplier, xmlFilePath, content.productCount, null);
             }
-        });
+            xmlFilePath = xmlWriter.getXmlFilePath(outputDirectory, supplierFileName);
+            xmlWriter.writePrettyXmlFile(xmlFilePath, content.writer);
+            return new OutputFileResult(supplier, xmlFilePath, content.productCount, null);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("An error occurred while creating file {} - {}", supplierFileName, e.getMessage(), e);
+            return new OutputFileResult(supplier, xmlFilePath, content.productCount, e);
+        }
+    }
+
+    private SupplierFileAggregator aggregatorFor(Path outputDirectory) {
+        return aggregators.computeIfAbsent(outputDirectory.toAbsolutePath().normalize(),
+                directory -> new SupplierFileAggregator(productsSerializationService, directory));
     }
 
-    private List<SupplierProducts> getSuppliersProducts(Orders orders) {
+    public List<SupplierProducts> getSuppliersProducts(Orders orders) {
         HashMap<String, SupplierProducts> supplierProductsHashMap = new HashMap<>();
-        LOGGER.info("Start products filtering");
-        orders.getOrders().forEach(order -> {
-            LOGGER.info(String.format("Start order %s", order.getID()));
-            order.getProducts().forEach(product -> {
+        long start = groupTimer.start();
+        LOGGER.debug("Start products filtering");
+        int productCount = 0;
+        for (Order order : orders.getOrders()) {
+            for (Product product : order.getProducts()) {
                 product.setOrderID(order.getID());
-                if (!supplierProductsHashMap.containsKey(product.getSupplier())) {
-                    supplierProductsHashMap.put(product.getSupplier(), new SupplierProducts(product.getSupplier()));
-                }
-                supplierProductsHashMap.get(product.getSupplier()).addProduct(product);
+                supplierProductsHashMap.computeIfAbsent(product.getSupplier(), SupplierProducts::new).addProduct(product);
                 product.setSupplier(null);
-            });
-        });
-        LOGGER.info("Products are filtered by suppliers");
+                productCount++;
+            }
+        }
+        groupTimer.stop(start);
+        ordersCounter.add(orders.getOrders().size());
+        productsCounter.add(productCount);
+        LOGGER.info("{} products of {} orders have been filtered into {} suppliers",
+                productCount, orders.getOrders().size(), supplierProductsHashMap.size());
         return new ArrayList<>(supplierProductsHashMap.values());
     }
 
+    private static class SupplierContent {
+        private final int productCount;
+        private final Consumer<HierarchicalStreamWriter> writer;
+
+        private SupplierContent(int productCount, Consumer<HierarchicalStreamWriter> writer) {
+            this.productCount = productCount;
+            this.writer = writer;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package org.example.controllers;
+
+import org.example.configuration.SchedulingPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class FileScheduler {
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final SchedulingPolicy policy;
+    private final long sizePenaltyMillisPerMegabyte;
+    private final Function<Path, String> feedOf;
+    private final Clock clock;
+    private final Map<String, Long> feedVirtualTimes;
+    private final Logger LOGGER;
+
+    public FileScheduler(SchedulingPolicy policy, long sizePenaltyMillisPerMegabyte, Function<Path, String> feedOf, Clock clock) {
+        this.LOGGER = LoggerFactory.getLogger(FileScheduler.class);
+        this.policy = policy;
+        this.sizePenaltyMillisPerMegabyte = sizePenaltyMillisPerMegabyte;
+        this.feedOf = feedOf;
+        this.clock = clock;
+        this.feedVirtualTimes = new HashMap<>();
+    }
+
+    public static FileScheduler fifo() {
+        return new FileScheduler(SchedulingPolicy.FIFO, 0, file -> "", Clock.systemUTC());
+    }
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    public synchronized long priorityOf(Path file) {
+        long now = clock.millis();
+        long priority = switch (policy) {
+            case FIFO -> now;
+            case OLDEST_FIRST -> Math.min(now, lastModifiedMillis(file, now));
+            case SMALLEST_FIRST -> now + sizePenaltyMillis(file);
+            case FAIR_SHARE -> {
+                String feed = feedOf.apply(file);
+                long start = Math.max(now, feedVirtualTimes.getOrDefault(feed, now));
+                feedVirtualTimes.put(feed, start + Math.max(1, sizePenaltyMillis(file)));
+                yield start;
+            }
+        };
+        LOGGER.debug("File {} scheduled with priority {} by {} policy", file, priority - now, policy);
+        return priority;
+    }
+
+    private long sizePenaltyMillis(Path file) {
+        try {
+            return Math.round(Files.size(file) / BYTES_PER_MEGABYTE * sizePenaltyMillisPerMegabyte);
+        } catch (IOException e) {
+            LOGGER.debug("Size of file {} could not be read - {}", file, e.getMessage());
+            return 0;
+        }
+    }
+
+    private long lastModifiedMillis(Path file, long now) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            LOGGER.debug("Modification time of file {} could not be read - {}", file, e.getMessage());
+            return now;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.controllers;
+
+import org.example.models.FileProcessingResult;
+import org.example.models.OutputFileResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class FingerprintCache {
+    private static final String SEPARATOR = ";";
+    private static final int OUTPUT_FIELDS = 3;
+    private static final int HEADER_FIELDS = 4;
+
+    private final Path cacheFile;
+    private final int maxEntries;
+    private final LinkedHashMap<String, FileProcessingResult> entries;
+    private final Logger LOGGER;
+    private FileOutputStream outputStream;
+    private boolean endsWithPartialLine;
+    private int lines;
+
+    public FingerprintCache(Path cacheFile, int maxEntries) throws IOException {
+        this.LOGGER = LoggerFactory.getLogger(FingerprintCache.class);
+        this.cacheFile = cacheFile;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        load();
+    }
+
+    private void load() throws IOException {
+        if (Files.notExists(cacheFile)) {
+            LOGGER.debug("Fingerprint cache {} does not exist yet", cacheFile);
+            return;
+        }
+        String content = Files.readString(cacheFile, StandardCharsets.UTF_8);
+        endsWithPartialLine = !content.isEmpty() && !content.endsWith("\n");
+        for (String line : content.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            lines++;
+            String[] entry = line.split(SEPARATOR, -1);
+            if (entry.length < HEADER_FIELDS || (entry.length - HEADER_FIELDS) % OUTPUT_FIELDS != 0) {
+                LOGGER.warn("Ignoring incomplete fingerprint entry '{}'", line);
+                continue;
+            }
+            try {
+                put(entry[0], parse(entry));
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Ignoring invalid fingerprint entry '{}' - {}", line, e.getMessage());
+            }
+        }
+        LOGGER.info("Fingerprint cache {} loaded with {} inputs", cacheFile, entries.size());
+    }
+
+    private FileProcessingResult parse(String[] entry) {
+        List<OutputFileResult> outputs = new ArrayList<>();
+        for (int i = HEADER_FIELDS; i < entry.length; i += OUTPUT_FIELDS) {
+            outputs.add(new OutputFileResult(decode(entry[i]), decode(entry[i + 1]), Integer.parseInt(entry[i + 2]), null));
+        }
+        Integer fileNumber = entry[2].isEmpty() ? null : Integer.valueOf(entry[2]);
+        return new FileProcessingResult(decode(entry[1]), fileNumber, Long.parseLong(entry[3]), outputs, null);
+    }
+
+    public synchronized FileProcessingResult get(String checksum) {
+        return entries.get(checksum);
+    }
+
+    public synchronized void record(String checksum, FileProcessingResult result) throws IOException {
+        if (maxEntries <= 0) {
+            return;
+        }
+        put(checksum, result);
+        if (lines >= maxEntries * 2) {
+            compact();
+            return;
+        }
+        openOutputStream();
+        outputStream.write((format(checksum, result) + "\n").getBytes(StandardCharsets.UTF_8));
+        lines++;
+        LOGGER.debug("Fingerprint of file {} has been recorded", result.getFileName());
+    }
+
+    public synchronized void forgetOutputs(List<OutputFileResult> outputs) throws IOException {
+        Set<Path> paths = new HashSet<>();
+        for (OutputFileResult output : outputs) {
+            if (output.getPath() != null) {
+                paths.add(normalize(output.getPath()));
+            }
+        }
+        if (paths.isEmpty()) {
+            return;
+        }
+        int before = entries.size();
+        entries.values().removeIf(result -> result.getOutputs().stream()
+                .anyMatch(output -> output.getPath() != null && paths.contains(normalize(output.getPath()))));
+        if (entries.size() < before) {
+            LOGGER.debug("{} fingerprints pointing at rewritten supplier files have been forgotten", before - entries.size());
+            if (maxEntries > 0) {
+                compact();
+            }
+        }
+    }
+
+    private static Path normalize(String path) {
+        return Path.of(path).toAbsolutePath().normalize();
+    }
+
+    private void put(String checksum, FileProcessingResult result) {
+        entries.put(checksum, result);
+        if (entries.size() > maxEntries) {
+            String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            LOGGER.debug("Fingerprint {} has been evicted", eldest);
+        }
+    }
+
+    private void openOutputStream() throws IOException {
+        if (outputStream != null) {
+            return;
+        }
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        outputStream = new FileOutputStream(cacheFile.toFile(), true);
+        if (endsWithPartialLine) {
+            outputStream.write('\n');
+            endsWithPartialLine = false;
+        }
+    }
+
+    private void compact() throws IOException {
+        close();
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, FileProcessingResult> entry : entries.entrySet()) {
+            content.append(format(entry.getKey(), entry.getValue())).append('\n');
+        }
+        Path absoluteFile = cacheFile.toAbsolutePath();
+        Path temp = Files.createTempFile(absoluteFile.getParent(), String.format(".%s.", absoluteFile.getFileName()), ".tmp");
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            Files.move(temp, absoluteFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        lines = entries.size();
+        endsWithPartialLine = false;
+        LOGGER.debug("Fingerprint cache {} has been compacted to {} inputs", cacheFile, lines);
+    }
+
+    private static String format(String checksum, FileProcessingResult result) {
+        List<String> fields = new ArrayList<>();
+        fields.add(checksum);
+        fields.add(encode(result.getFileName()));
+        fields.add(result.getFileNumber() == null ? "" : result.getFileNumber().toString());
+        fields.add(String.valueOf(result.getInputBytes()));
+        for (OutputFileResult output : result.getOutputs()) {
+            fields.add(encode(output.getSupplier()));
+            fields.add(encode(output.getPath()));
+            fields.add(String.valueOf(output.getProductCount()));
+        }
+        return String.join(SEPARATOR, fields);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void close() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ProcessingJournal {
+    private static final String SEPARATOR = ";";
+
+    private final Path journalFile;
+    private final Map<String, String> checksums;
+    private final Logger LOGGER;
+    private FileOutputStream outputStream;
+    private boolean endsWithPartialLine;
+
+    public ProcessingJournal(Path journalFile) throws IOException {
+        this.LOGGER = LoggerFactory.getLogger(ProcessingJournal.class);
+        this.journalFile = journalFile;
+        this.checksums = new ConcurrentHashMap<>();
+        load();
+    }
+
+    private void load() throws IOException {
+        if (Files.notExists(journalFile)) {
+            LOGGER.debug("Journal {} does not exist yet", journalFile);
+            return;
+        }
+        String content = Files.readString(journalFile, StandardCharsets.UTF_8);
+        endsWithPartialLine = !content.isEmpty() && !content.endsWith("\n");
+        for (String line : content.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] entry = line.split(SEPARATOR);
+            if (entry.length != 3) {
+                LOGGER.warn("Ignoring incomplete journal entry '{}'", line);
+                continue;
+            }
+            checksums.put(entry[0], entry[2]);
+        }
+        LOGGER.info("Journal {} loaded with {} processed files", journalFile, checksums.size());
+    }
+
+    public boolean isProcessed(String fileName, String checksum) {
+        return checksum.equals(checksums.get(fileName));
+    }
+
+    public synchronized void record(String fileName, Integer fileNumber, String checksum) throws IOException {
+        if (outputStream == null) {
+            Path parent = journalFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            outputStream = new FileOutputStream(journalFile.toFile(), true);
+            if (endsWithPartialLine) {
+                outputStream.write('\n');
+                endsWithPartialLine = false;
+            }
+        }
+        String line = String.join(SEPARATOR, fileName, String.valueOf(fileNumber), checksum) + "\n";
+        outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+        outputStream.getFD().sync();
+        checksums.put(fileName, checksum);
+        LOGGER.debug("File {} has been recorded in journal", fileName);
+    }
+
+    public synchronized void close() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+}
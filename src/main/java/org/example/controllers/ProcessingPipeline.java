@@ -0,0 +1,123 @@
+package org.example.controllers;
+
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class ProcessingPipeline {
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final AtomicInteger inFlight;
+    private final Consumer<Path> handler;
+    private final FileScheduler scheduler;
+    private final AtomicLong sequence;
+    private final Timer queueWaitTimer;
+    private final Logger LOGGER;
+
+    public ProcessingPipeline(int workers, int queueSize, Consumer<Path> handler) {
+        this(workers, queueSize, FileScheduler.fifo(), handler);
+    }
+
+    public ProcessingPipeline(int workers, int queueSize, FileScheduler scheduler, Consumer<Path> handler) {
+        this.LOGGER = LoggerFactory.getLogger(ProcessingPipeline.class);
+        this.handler = handler;
+        this.scheduler = scheduler;
+        this.sequence = new AtomicLong();
+        this.queueWaitTimer = MetricsRegistry.getInstance().timer("queue_wait_seconds", "Time an input file waited for an ingestion worker");
+        this.slots = new Semaphore(workers + queueSize);
+        this.inFlight = new AtomicInteger();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> new Thread(runnable, String.format("file-processor-%d", threadNumber.incrementAndGet())));
+        LOGGER.debug("Processing pipeline created with {} workers, {} queued files and {} scheduling",
+                workers, queueSize, scheduler.getPolicy());
+    }
+
+    public void submit(Path file) throws InterruptedException {
+        if (!slots.tryAcquire()) {
+            LOGGER.info("Processing queue is full, waiting to enqueue {}", file);
+            slots.acquire();
+        }
+        try {
+            executor.execute(new QueuedFile(file, scheduler.priorityOf(file), sequence.getAndIncrement()));
+            LOGGER.debug("File {} has been enqueued", file);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            LOGGER.error("File {} could not be enqueued - {}", file, e.getMessage());
+            throw e;
+        }
+    }
+
+    private void process(QueuedFile queuedFile) {
+        Path file = queuedFile.file;
+        long waitNanos = System.nanoTime() - queuedFile.enqueuedNanos;
+        queueWaitTimer.record(waitNanos);
+        LOGGER.debug("File {} waited {} ms for a worker", file, waitNanos / 1_000_000);
+        inFlight.incrementAndGet();
+        try {
+            handler.accept(file);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error while processing file {} - {}", file, e.getMessage(), e);
+        } finally {
+            inFlight.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        LOGGER.debug("Shutting down processing pipeline");
+        executor.shutdown();
+        if (!executor.awaitTermination(timeout, unit)) {
+            LOGGER.warn("{} files were still being processed at shutdown", getInFlight() + getQueueDepth());
+            executor.shutdownNow();
+        }
+    }
+
+    private class QueuedFile implements Runnable, Comparable<QueuedFile> {
+        private final Path file;
+        private final long priority;
+        private final long sequence;
+        private final long enqueuedNanos;
+
+        private QueuedFile(Path file, long priority, long sequence) {
+            this.file = file;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            process(this);
+        }
+
+        @Override
+        public int compareTo(QueuedFile other) {
+            int result = Long.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
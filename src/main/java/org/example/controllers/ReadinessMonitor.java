@@ -0,0 +1,127 @@
+package org.example.controllers;
+
+import org.example.configuration.ReadinessStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class ReadinessMonitor {
+    public static final String DONE_MARKER_SUFFIX = ".done";
+
+    private final ReadinessStrategy strategy;
+    private final long quietPeriodMillis;
+    private final long pollIntervalMillis;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService handoff;
+    private final Logger LOGGER;
+
+    public ReadinessMonitor(ReadinessStrategy strategy, long quietPeriodMillis, long pollIntervalMillis) {
+        this(strategy, quietPeriodMillis, pollIntervalMillis, Integer.MAX_VALUE);
+    }
+
+    public ReadinessMonitor(ReadinessStrategy strategy, long quietPeriodMillis, long pollIntervalMillis, int maxPending) {
+        this.LOGGER = LoggerFactory.getLogger(ReadinessMonitor.class);
+        this.strategy = strategy;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxPending = Math.max(maxPending, 1);
+        this.pending = new Semaphore(this.maxPending);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "readiness-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.handoff = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "readiness-handoff");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ReadinessStrategy getStrategy() {
+        return strategy;
+    }
+
+    public boolean isDoneMarker(Path file) {
+        return strategy == ReadinessStrategy.DONE_MARKER && String.valueOf(file.getFileName()).endsWith(DONE_MARKER_SUFFIX);
+    }
+
+    public Path dataFileOf(Path doneMarker) {
+        String markerName = String.valueOf(doneMarker.getFileName());
+        return doneMarker.resolveSibling(markerName.substring(0, markerName.length() - DONE_MARKER_SUFFIX.length()));
+    }
+
+    public boolean hasDoneMarker(Path file) {
+        return Files.exists(file.resolveSibling(file.getFileName() + DONE_MARKER_SUFFIX));
+    }
+
+    public void whenReady(Path file, Consumer<Path> onReady, Consumer<Path> onAbandoned) throws InterruptedException {
+        if (!pending.tryAcquire()) {
+            LOGGER.debug("{} files are already waiting to be ready, waiting for one of them", maxPending);
+            pending.acquire();
+        }
+        if (strategy != ReadinessStrategy.STABLE_SIZE) {
+            ready(file, onReady);
+            return;
+        }
+        LOGGER.debug("Waiting for file {} to stop changing", file);
+        scheduler.schedule(() -> poll(file, -1, -1, System.currentTimeMillis(), onReady, onAbandoned), pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(Path file, long lastSize, long lastModified, long stableSince, Consumer<Path> onReady, Consumer<Path> onAbandoned) {
+        long size;
+        long modified;
+        try {
+            size = Files.size(file);
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            LOGGER.warn("File {} disappeared before it was ready - {}", file, e.getMessage());
+            try {
+                onAbandoned.accept(file);
+            } finally {
+                pending.release();
+            }
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (size != lastSize || modified != lastModified) {
+            stableSince = now;
+        } else if (now - stableSince >= quietPeriodMillis) {
+            LOGGER.debug("File {} is ready ({} bytes)", file, size);
+            ready(file, onReady);
+            return;
+        }
+        long since = stableSince;
+        scheduler.schedule(() -> poll(file, size, modified, since, onReady, onAbandoned), pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void ready(Path file, Consumer<Path> onReady) {
+        handoff.execute(() -> {
+            try {
+                onReady.accept(file);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    public int getPending() {
+        return maxPending - pending.availablePermits();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        handoff.shutdownNow();
+    }
+}
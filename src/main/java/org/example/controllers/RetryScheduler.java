@@ -0,0 +1,121 @@
+package org.example.controllers;
+
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.service.Quarantine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class RetryScheduler {
+    private static final String STAGE = "processing";
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final Quarantine deadLetters;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Path, Integer> attempts;
+    private final Set<Path> pendingRetries;
+    private final Counter retries;
+    private final Counter deadLettered;
+    private final Logger LOGGER;
+    private volatile Consumer<Path> resubmit;
+
+    public RetryScheduler(int maxAttempts, long initialDelayMillis, long maxDelayMillis, Quarantine deadLetters) {
+        this.LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = Math.max(maxDelayMillis, initialDelayMillis);
+        this.deadLetters = deadLetters;
+        this.attempts = new ConcurrentHashMap<>();
+        this.pendingRetries = ConcurrentHashMap.newKeySet();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.retries = metrics.counter("retries_total", "Failed input files scheduled for another attempt");
+        this.deadLettered = metrics.counter("files_dead_lettered_total", "Input files moved to the error folder after their last failed attempt");
+        metrics.gauge("retries_pending", "Failed input files waiting for their next attempt", pendingRetries::size);
+    }
+
+    public void start(Consumer<Path> resubmit) {
+        this.resubmit = resubmit;
+    }
+
+    public void reset(Path file) {
+        attempts.remove(file.toAbsolutePath());
+    }
+
+    public void failed(Path file, Exception error, boolean retryable) {
+        Path key = file.toAbsolutePath();
+        int attempt = attempts.merge(key, 1, Integer::sum);
+        if (retryable && attempt < maxAttempts && resubmit != null) {
+            long delay = delayOf(attempt);
+            LOGGER.warn("File {} failed on attempt {} of {}, retrying in {} ms - {}", file, attempt, maxAttempts, delay, error.getMessage());
+            retries.increment();
+            pendingRetries.add(key);
+            scheduler.schedule(() -> retry(key), delay, TimeUnit.MILLISECONDS);
+            return;
+        }
+        attempts.remove(key);
+        if (Files.notExists(key)) {
+            LOGGER.warn("File {} failed and no longer exists, nothing to move to the error folder", file);
+            return;
+        }
+        try {
+            deadLetters.move(key, STAGE, error, attempt);
+            deadLettered.increment();
+        } catch (IOException e) {
+            LOGGER.error("File {} could not be moved to the error folder - {}", file, e.getMessage());
+        }
+    }
+
+    private void retry(Path file) {
+        pendingRetries.remove(file);
+        if (Files.notExists(file)) {
+            LOGGER.info("File {} disappeared before it was retried", file);
+            attempts.remove(file);
+            return;
+        }
+        LOGGER.info("Retrying file {}", file);
+        resubmit.accept(file);
+    }
+
+    public long delayOf(int attempt) {
+        long delay = initialDelayMillis;
+        for (int i = 1; i < attempt && delay < maxDelayMillis; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxDelayMillis);
+    }
+
+    public int getAttempts(Path file) {
+        return attempts.getOrDefault(file.toAbsolutePath(), 0);
+    }
+
+    public int getPendingRetries() {
+        return pendingRetries.size();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (!pendingRetries.isEmpty()) {
+            LOGGER.warn("{} files were waiting for a retry at shutdown", pendingRetries.size());
+        }
+        pendingRetries.clear();
+    }
+}
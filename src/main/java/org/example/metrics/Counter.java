@@ -0,0 +1,41 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+    private final String name;
+    private final String help;
+    private final boolean enabled;
+    private final LongAdder value;
+
+    public Counter(String name, String help, boolean enabled) {
+        this.name = name;
+        this.help = help;
+        this.enabled = enabled;
+        this.value = new LongAdder();
+    }
+
+    public void increment() {
+        if (enabled) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (enabled) {
+            value.add(amount);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public long getValue() {
+        return value.sum();
+    }
+}
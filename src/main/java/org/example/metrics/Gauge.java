@@ -0,0 +1,27 @@
+package org.example.metrics;
+
+import java.util.function.LongSupplier;
+
+public class Gauge {
+    private final String name;
+    private final String help;
+    private final LongSupplier value;
+
+    public Gauge(String name, String help, LongSupplier value) {
+        this.name = name;
+        this.help = help;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public long getValue() {
+        return value.getAsLong();
+    }
+}
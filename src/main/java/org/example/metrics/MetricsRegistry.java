@@ -0,0 +1,129 @@
+package org.example.metrics;
+
+import org.example.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+public class MetricsRegistry {
+    private static final String PREFIX = "xml_processor_";
+    private static final String OBJECT_NAME = "org.example:type=Metrics";
+    private static MetricsRegistry instance = null;
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, Counter> counters;
+    private final ConcurrentMap<String, Timer> timers;
+    private final ConcurrentMap<String, Gauge> gauges;
+    private final Logger LOGGER;
+
+    public MetricsRegistry(boolean enabled) {
+        this.LOGGER = LoggerFactory.getLogger(MetricsRegistry.class);
+        this.enabled = enabled;
+        this.counters = new ConcurrentHashMap<>();
+        this.timers = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry(Configuration.getInstance().isMetricsEnabled());
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Counter counter(String name, String help) {
+        return counters.computeIfAbsent(PREFIX + name, key -> new Counter(key, help, enabled));
+    }
+
+    public Timer timer(String name, String help) {
+        return timers.computeIfAbsent(PREFIX + name, key -> new Timer(key, help, enabled));
+    }
+
+    public void gauge(String name, String help, LongSupplier value) {
+        if (enabled) {
+            gauges.put(PREFIX + name, new Gauge(PREFIX + name, help, value));
+        }
+    }
+
+    public Map<String, Number> snapshot() {
+        Map<String, Number> snapshot = new LinkedHashMap<>();
+        counters.values().forEach(counter -> snapshot.put(counter.getName(), counter.getValue()));
+        timers.values().forEach(timer -> {
+            snapshot.put(timer.getName() + "_count", timer.getCount());
+            snapshot.put(timer.getName() + "_sum", seconds(timer.getTotalNanos()));
+            snapshot.put(timer.getName() + "_max", seconds(timer.getMaxNanos()));
+        });
+        gauges.values().forEach(gauge -> snapshot.put(gauge.getName(), gauge.getValue()));
+        return snapshot;
+    }
+
+    public String scrape() {
+        StringBuilder builder = new StringBuilder();
+        counters.values().forEach(counter -> {
+            appendHeader(builder, counter.getName(), counter.getHelp(), "counter");
+            builder.append(counter.getName()).append(' ').append(counter.getValue()).append('\n');
+        });
+        gauges.values().forEach(gauge -> {
+            appendHeader(builder, gauge.getName(), gauge.getHelp(), "gauge");
+            builder.append(gauge.getName()).append(' ').append(gauge.getValue()).append('\n');
+        });
+        timers.values().forEach(timer -> {
+            appendHeader(builder, timer.getName(), timer.getHelp(), "histogram");
+            long cumulative = 0;
+            for (int i = 0; i < timer.getBucketCount(); i++) {
+                cumulative += timer.getBucketValue(i);
+                builder.append(timer.getName()).append("_bucket{le=\"")
+                        .append(format(seconds(timer.getBucketUpperBoundNanos(i)))).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            long count = timer.getCount();
+            builder.append(timer.getName()).append("_bucket{le=\"+Inf\"} ").append(count).append('\n');
+            builder.append(timer.getName()).append("_sum ").append(format(seconds(timer.getTotalNanos()))).append('\n');
+            builder.append(timer.getName()).append("_count ").append(count).append('\n');
+        });
+        return builder.toString();
+    }
+
+    public void registerMBean() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new MetricsMBean(this), objectName);
+                LOGGER.info("Metrics registered in JMX as {}", OBJECT_NAME);
+            }
+        } catch (JMException e) {
+            LOGGER.error("Metrics could not be registered in JMX - {}", e.getMessage());
+        }
+    }
+
+    private static void appendHeader(StringBuilder builder, String name, String help, String type) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
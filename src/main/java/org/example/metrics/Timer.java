@@ -0,0 +1,89 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Timer {
+    private static final long[] BUCKET_NANOS = {
+            500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private final String name;
+    private final String help;
+    private final boolean enabled;
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+
+    public Timer(String name, String help, boolean enabled) {
+        this.name = name;
+        this.help = help;
+        this.enabled = enabled;
+        this.buckets = new LongAdder[BUCKET_NANOS.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Long::max, 0);
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(long startNanos) {
+        if (enabled) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public void record(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_NANOS.length; i++) {
+            if (nanos <= BUCKET_NANOS[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public int getBucketCount() {
+        return BUCKET_NANOS.length;
+    }
+
+    public long getBucketUpperBoundNanos(int bucket) {
+        return BUCKET_NANOS[bucket];
+    }
+
+    public long getBucketValue(int bucket) {
+        return buckets[bucket].sum();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.models;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+public class BatchSummary {
+    private int files;
+    private int failedFiles;
+    private long products;
+    private long bytes;
+    private long wallNanos;
+    @Getter(AccessLevel.NONE)
+    private final Set<String> suppliers = new HashSet<>();
+
+    public synchronized void add(FileProcessingResult result) {
+        files++;
+        if (!result.isSuccess()) {
+            failedFiles++;
+        }
+        products += result.getProductCount();
+        bytes += result.getInputBytes();
+        result.getOutputs().forEach(output -> suppliers.add(output.getSupplier()));
+    }
+
+    public synchronized void addFailure() {
+        files++;
+        failedFiles++;
+    }
+
+    public synchronized void finish(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    public synchronized int getSupplierCount() {
+        return suppliers.size();
+    }
+
+    public double getFilesPerSecond() {
+        return wallNanos == 0 ? 0 : files * 1e9 / wallNanos;
+    }
+
+    public double getProductsPerSecond() {
+        return wallNanos == 0 ? 0 : products * 1e9 / wallNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return wallNanos == 0 ? 0 : bytes * 1e9 / wallNanos / (1024 * 1024);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BatchSummary{" +
+                "files=" + files +
+                ", failedFiles=" + failedFiles +
+                ", products=" + products +
+                ", suppliers=" + suppliers.size() +
+                ", bytes=" + bytes +
+                ", wallMillis=" + wallNanos / 1_000_000 +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class FileProcessingResult {
+    private final String fileName;
+    private final Integer fileNumber;
+    private final long inputBytes;
+    private final List<OutputFileResult> outputs;
+    private final Exception error;
+
+    public boolean isSuccess() {
+        return error == null && outputs.stream().allMatch(OutputFileResult::isSuccess);
+    }
+
+    public long getProductCount() {
+        return outputs.stream().mapToLong(OutputFileResult::getProductCount).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "FileProcessingResult{" +
+                "fileName='" + fileName + '\'' +
+                ", fileNumber=" + fileNumber +
+                ", inputBytes=" + inputBytes +
+                ", outputs=" + outputs +
+                ", error=" + error +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutputFileResult {
+    private final String supplier;
+    private final String path;
+    private final int productCount;
+    private final Exception error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "OutputFileResult{" +
+                "supplier='" + supplier + '\'' +
+                ", path='" + path + '\'' +
+                ", productCount=" + productCount +
+                ", error=" + error +
+                '}';
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductColumns {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_PRICE_VALUE = 2;
+    private static final byte HAS_ORDER_ID = 4;
+
+    private final Dictionary suppliers;
+    private final Dictionary gtins;
+    private final Dictionary currencies;
+    private String[] descriptions;
+    private int[] gtinIds;
+    private int[] currencyIds;
+    private float[] prices;
+    private int[] orderIds;
+    private byte[] flags;
+    private int size;
+    private int orderCount;
+    private int[][] supplierProducts;
+    private int[] supplierProductCounts;
+
+    public ProductColumns() {
+        this.suppliers = new Dictionary();
+        this.gtins = new Dictionary();
+        this.currencies = new Dictionary();
+        this.descriptions = new String[INITIAL_CAPACITY];
+        this.gtinIds = new int[INITIAL_CAPACITY];
+        this.currencyIds = new int[INITIAL_CAPACITY];
+        this.prices = new float[INITIAL_CAPACITY];
+        this.orderIds = new int[INITIAL_CAPACITY];
+        this.flags = new byte[INITIAL_CAPACITY];
+        this.supplierProducts = new int[8][];
+        this.supplierProductCounts = new int[8];
+    }
+
+    public static ProductColumns of(Orders orders) {
+        ProductColumns columns = new ProductColumns();
+        for (Order order : orders.getOrders()) {
+            columns.addOrder();
+            if (order.getProducts() == null) {
+                continue;
+            }
+            for (Product product : order.getProducts()) {
+                columns.add(product, order.getID());
+            }
+        }
+        return columns;
+    }
+
+    public void addOrder() {
+        orderCount++;
+    }
+
+    public void add(Product product, Integer orderId) {
+        if (size == descriptions.length) {
+            grow();
+        }
+        int index = size++;
+        descriptions[index] = product.getDescription();
+        gtinIds[index] = gtins.idOf(product.getGtin());
+        byte productFlags = 0;
+        Price price = product.getPrice();
+        if (price != null) {
+            productFlags |= HAS_PRICE;
+            currencyIds[index] = currencies.idOf(price.getCurrency());
+            if (price.getValue() != null) {
+                productFlags |= HAS_PRICE_VALUE;
+                prices[index] = price.getValue();
+            }
+        }
+        if (orderId != null) {
+            productFlags |= HAS_ORDER_ID;
+            orderIds[index] = orderId;
+        }
+        flags[index] = productFlags;
+        addToSupplier(suppliers.idOf(product.getSupplier()), index);
+    }
+
+    private void grow() {
+        int capacity = descriptions.length * 2;
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        gtinIds = Arrays.copyOf(gtinIds, capacity);
+        currencyIds = Arrays.copyOf(currencyIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    private void addToSupplier(int supplierId, int index) {
+        if (supplierId == supplierProducts.length) {
+            supplierProducts = Arrays.copyOf(supplierProducts, supplierId * 2);
+            supplierProductCounts = Arrays.copyOf(supplierProductCounts, supplierId * 2);
+        }
+        int[] products = supplierProducts[supplierId];
+        int count = supplierProductCounts[supplierId];
+        if (products == null) {
+            products = new int[INITIAL_CAPACITY];
+            supplierProducts[supplierId] = products;
+        } else if (count == products.length) {
+            products = Arrays.copyOf(products, count * 2);
+            supplierProducts[supplierId] = products;
+        }
+        products[count] = index;
+        supplierProductCounts[supplierId] = count + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public int getSupplierCount() {
+        return suppliers.size();
+    }
+
+    public int getCurrencyCount() {
+        return currencies.size();
+    }
+
+    public int getGtinCount() {
+        return gtins.size();
+    }
+
+    public String getSupplier(int supplierId) {
+        return suppliers.valueOf(supplierId);
+    }
+
+    public int getProductCount(int supplierId) {
+        return supplierProductCounts[supplierId];
+    }
+
+    public int getProductIndex(int supplierId, int position) {
+        return supplierProducts[supplierId][position];
+    }
+
+    public String getDescription(int index) {
+        return descriptions[index];
+    }
+
+    public String getGtin(int index) {
+        return gtins.valueOf(gtinIds[index]);
+    }
+
+    public boolean hasPrice(int index) {
+        return (flags[index] & HAS_PRICE) != 0;
+    }
+
+    public String getCurrency(int index) {
+        return currencies.valueOf(currencyIds[index]);
+    }
+
+    public boolean hasPriceValue(int index) {
+        return (flags[index] & HAS_PRICE_VALUE) != 0;
+    }
+
+    public float getPriceValue(int index) {
+        return prices[index];
+    }
+
+    public boolean hasOrderId(int index) {
+        return (flags[index] & HAS_ORDER_ID) != 0;
+    }
+
+    public int getOrderId(int index) {
+        return orderIds[index];
+    }
+
+    @Override
+    public String toString() {
+        return "ProductColumns{" +
+                "products=" + size +
+                ", orders=" + orderCount +
+                ", suppliers=" + suppliers.size() +
+                ", gtins=" + gtins.size() +
+                ", currencies=" + currencies.size() +
+                '}';
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String valueOf(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
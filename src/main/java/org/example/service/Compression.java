@@ -0,0 +1,52 @@
+package org.example.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.example.configuration.CompressionCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class Compression {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Compression() {
+    }
+
+    public static InputStream decompress(CompressionCodec codec, InputStream inputStream) throws IOException {
+        try {
+            return switch (codec) {
+                case NONE -> inputStream;
+                case GZIP -> new GZIPInputStream(inputStream, BUFFER_SIZE);
+                case ZSTD -> new ZstdInputStream(inputStream);
+            };
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    public static OutputStream compress(CompressionCodec codec, OutputStream outputStream, int level) throws IOException {
+        try {
+            return switch (codec) {
+                case NONE -> outputStream;
+                case GZIP -> new LeveledGZIPOutputStream(outputStream, level == 0 ? Deflater.DEFAULT_COMPRESSION : level);
+                case ZSTD -> new ZstdOutputStream(outputStream, level);
+            };
+        } catch (IOException | RuntimeException e) {
+            outputStream.close();
+            throw e;
+        }
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream outputStream, int level) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+
+public class DirectBufferOutputStream extends OutputStream {
+    private final OutputIoScheduler scheduler;
+    private final ResourcePool<ByteBuffer> bufferPool;
+    private final Path file;
+    private final FileChannel channel;
+    private final int ioThread;
+    private final boolean force;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private long size;
+    private boolean closed;
+
+    DirectBufferOutputStream(OutputIoScheduler scheduler, ResourcePool<ByteBuffer> bufferPool, Path file, FileChannel channel,
+                             int ioThread, boolean force, int maxInFlight) {
+        this.scheduler = scheduler;
+        this.bufferPool = bufferPool;
+        this.file = file;
+        this.channel = channel;
+        this.ioThread = ioThread;
+        this.force = force;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureRemaining().put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            ByteBuffer buffer = ensureRemaining();
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+            size += count;
+        }
+    }
+
+    private ByteBuffer ensureRemaining() throws IOException {
+        if (closed) {
+            throw new IOException(String.format("Output stream of %s is closed", file));
+        }
+        if (current != null && !current.hasRemaining()) {
+            submitCurrent();
+        }
+        if (current == null) {
+            throwIfFailed();
+            current = bufferPool.borrow();
+            current.clear();
+        }
+        return current;
+    }
+
+    private void submitCurrent() throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while writing %s", file));
+        }
+        ByteBuffer buffer = current;
+        current = null;
+        buffer.flip();
+        scheduler.submit(this, buffer);
+    }
+
+    void written(ByteBuffer buffer, IOException error) {
+        if (error != null && failure == null) {
+            failure = error;
+        }
+        bufferPool.release(buffer);
+        inFlight.release();
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException(String.format("Output file %s could not be written - %s", file, failure.getMessage()), failure);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (current != null && current.position() > 0) {
+                submitCurrent();
+            } else if (current != null) {
+                bufferPool.release(current);
+                current = null;
+            }
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+            throwIfFailed();
+            if (force) {
+                scheduler.force(channel);
+            }
+            scheduler.closed(size);
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    int getIoThread() {
+        return ioThread;
+    }
+
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.service;
+
+import org.example.configuration.CompressionCodec;
+import org.example.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class InputFiles {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Logger LOGGER = LoggerFactory.getLogger(InputFiles.class);
+
+    private InputFiles() {
+    }
+
+    public static InputStream open(Path file) throws IOException {
+        Configuration configuration = Configuration.getInstance();
+        return open(file, configuration.getInputMmapThresholdBytes(), configuration.getInputMmapChunkBytes());
+    }
+
+    public static InputStream open(Path file, long mmapThresholdBytes, int mmapChunkBytes) throws IOException {
+        CompressionCodec codec = CompressionCodec.fromFileName(String.valueOf(file.getFileName()));
+        if (codec != CompressionCodec.NONE) {
+            LOGGER.debug("Decompressing file {} with {}", file, codec);
+        }
+        return Compression.decompress(codec, openRaw(file, mmapThresholdBytes, mmapChunkBytes));
+    }
+
+    public static InputStream openRaw(Path file) throws IOException {
+        Configuration configuration = Configuration.getInstance();
+        return openRaw(file, configuration.getInputMmapThresholdBytes(), configuration.getInputMmapChunkBytes());
+    }
+
+    private static InputStream openRaw(Path file, long mmapThresholdBytes, int mmapChunkBytes) throws IOException {
+        long size = Files.size(file);
+        if (mmapThresholdBytes > 0 && size >= mmapThresholdBytes) {
+            LOGGER.debug("Reading file {} ({} bytes) through memory mapping", file, size);
+            return new MappedFileInputStream(file, mmapChunkBytes);
+        }
+        LOGGER.debug("Reading file {} ({} bytes) through a buffered stream", file, size);
+        return new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+    }
+}
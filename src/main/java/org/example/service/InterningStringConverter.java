@@ -0,0 +1,21 @@
+package org.example.service;
+
+import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
+
+public class InterningStringConverter extends AbstractSingleValueConverter {
+    private final StringInterner interner;
+
+    public InterningStringConverter(StringInterner interner) {
+        this.interner = interner;
+    }
+
+    @Override
+    public boolean canConvert(Class type) {
+        return type == String.class;
+    }
+
+    @Override
+    public Object fromString(String str) {
+        return interner.intern(str);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedFileInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long size;
+    private final int chunkSize;
+    private long nextChunkStart;
+    private MappedByteBuffer buffer;
+
+    public MappedFileInputStream(Path file, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid chunk size %d", chunkSize));
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+    }
+
+    private boolean ensureMapped() throws IOException {
+        if (buffer != null && buffer.hasRemaining()) {
+            return true;
+        }
+        if (nextChunkStart >= size) {
+            return false;
+        }
+        long length = Math.min(chunkSize, size - nextChunkStart);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, nextChunkStart, length);
+        nextChunkStart += length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureMapped()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureMapped()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        if (count <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(count, remaining());
+        if (skipped == 0) {
+            return 0;
+        }
+        long inBuffer = buffer == null ? 0 : buffer.remaining();
+        if (buffer != null && skipped <= inBuffer) {
+            buffer.position(buffer.position() + (int) skipped);
+        } else {
+            nextChunkStart += skipped - inBuffer;
+            buffer = null;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, remaining());
+    }
+
+    private long remaining() {
+        return (buffer == null ? 0 : buffer.remaining()) + size - nextChunkStart;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
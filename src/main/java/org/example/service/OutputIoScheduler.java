@@ -0,0 +1,172 @@
+package org.example.service;
+
+import org.example.configuration.Configuration;
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OutputIoScheduler {
+    private static final int MAX_BATCH = 64;
+
+    private static OutputIoScheduler instance;
+
+    private final int bufferBytes;
+    private final int buffersPerFile;
+    private final ResourcePool<ByteBuffer> bufferPool;
+    private final List<LinkedBlockingQueue<WriteRequest>> queues;
+    private final AtomicInteger nextThread;
+    private final Counter writeCalls;
+    private final Counter filesWritten;
+    private final Counter bytesWritten;
+    private final Counter batches;
+    private final Timer fsyncTimer;
+    private final Logger LOGGER;
+
+    public OutputIoScheduler(int ioThreads, int bufferBytes, int buffersPerFile, int maxIdleBuffers) {
+        this.LOGGER = LoggerFactory.getLogger(OutputIoScheduler.class);
+        this.bufferBytes = bufferBytes;
+        this.buffersPerFile = Math.max(buffersPerFile, 1);
+        this.bufferPool = new ResourcePool<>("output-buffer", Math.max(maxIdleBuffers, 1), () -> ByteBuffer.allocateDirect(bufferBytes));
+        this.queues = new ArrayList<>();
+        this.nextThread = new AtomicInteger();
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.writeCalls = metrics.counter("io_write_calls_total", "Write calls issued on output file channels");
+        this.filesWritten = metrics.counter("io_files_total", "Output files written by the output I/O scheduler");
+        this.bytesWritten = metrics.counter("io_bytes_total", "Bytes written by the output I/O scheduler");
+        this.batches = metrics.counter("io_batches_total", "Batches of queued output buffers written by one I/O thread wake-up");
+        this.fsyncTimer = metrics.timer("fsync_seconds", "Time spent forcing one output file to disk");
+        metrics.gauge("io_queue_depth", "Output buffers waiting for an I/O thread", this::getQueueDepth);
+
+        for (int i = 1; i <= ioThreads; i++) {
+            LinkedBlockingQueue<WriteRequest> queue = new LinkedBlockingQueue<>();
+            queues.add(queue);
+            Thread thread = new Thread(() -> run(queue), String.format("output-io-%d", i));
+            thread.setDaemon(true);
+            thread.start();
+        }
+        LOGGER.debug("Output I/O scheduler started with {} threads and {} buffers of {} bytes per file", ioThreads, this.buffersPerFile, bufferBytes);
+    }
+
+    public static synchronized OutputIoScheduler getInstance() {
+        if (instance == null) {
+            Configuration configuration = Configuration.getInstance();
+            instance = new OutputIoScheduler(configuration.getOutputIoThreads(), configuration.getOutputBufferBytes(),
+                    configuration.getOutputBuffersPerFile(), configuration.getOutputWorkers() * (configuration.getOutputBuffersPerFile() + 1));
+        }
+        return instance;
+    }
+
+    public DirectBufferOutputStream open(Path file, boolean force) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        int ioThread = queues.isEmpty() ? -1 : Math.floorMod(nextThread.getAndIncrement(), queues.size());
+        return new DirectBufferOutputStream(this, bufferPool, file, channel, ioThread, force, buffersPerFile);
+    }
+
+    void submit(DirectBufferOutputStream stream, ByteBuffer buffer) {
+        if (stream.getIoThread() < 0) {
+            List<WriteRequest> request = List.of(new WriteRequest(stream, buffer));
+            perform(request, 0, 1);
+            return;
+        }
+        queues.get(stream.getIoThread()).add(new WriteRequest(stream, buffer));
+    }
+
+    void force(FileChannel channel) throws IOException {
+        long start = fsyncTimer.start();
+        try {
+            channel.force(true);
+        } finally {
+            fsyncTimer.stop(start);
+        }
+    }
+
+    void closed(long size) {
+        filesWritten.increment();
+        bytesWritten.add(size);
+    }
+
+    private void run(LinkedBlockingQueue<WriteRequest> queue) {
+        List<WriteRequest> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                batches.increment();
+                LOGGER.debug("Writing a batch of {} output buffers", batch.size());
+                int from = 0;
+                while (from < batch.size()) {
+                    int to = from + 1;
+                    while (to < batch.size() && batch.get(to).stream == batch.get(from).stream) {
+                        to++;
+                    }
+                    perform(batch, from, to);
+                    from = to;
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            queue.drainTo(batch);
+            InterruptedIOException error = new InterruptedIOException("Output I/O scheduler stopped");
+            batch.forEach(request -> request.stream.written(request.buffer, error));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void perform(List<WriteRequest> requests, int from, int to) {
+        DirectBufferOutputStream stream = requests.get(from).stream;
+        ByteBuffer[] buffers = new ByteBuffer[to - from];
+        for (int i = from; i < to; i++) {
+            buffers[i - from] = requests.get(i).buffer;
+        }
+        IOException error = null;
+        try {
+            FileChannel channel = stream.getChannel();
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+                writeCalls.increment();
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        for (ByteBuffer buffer : buffers) {
+            stream.written(buffer, error);
+        }
+    }
+
+    public ResourcePool<ByteBuffer> getBufferPool() {
+        return bufferPool;
+    }
+
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+
+    public int getQueueDepth() {
+        return queues.stream().mapToInt(LinkedBlockingQueue::size).sum();
+    }
+
+    private static class WriteRequest {
+        private final DirectBufferOutputStream stream;
+        private final ByteBuffer buffer;
+
+        WriteRequest(DirectBufferOutputStream stream, ByteBuffer buffer) {
+            this.stream = stream;
+            this.buffer = buffer;
+        }
+    }
+}
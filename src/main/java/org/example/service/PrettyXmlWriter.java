@@ -0,0 +1,185 @@
+package org.example.service;
+
+import com.thoughtworks.xstream.io.AbstractWriter;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.naming.NameCoder;
+import com.thoughtworks.xstream.io.xml.XmlFriendlyNameCoder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class PrettyXmlWriter extends AbstractWriter {
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+    private static final String INDENT = "    ";
+
+    private final Writer writer;
+    private final String lineSeparator;
+    private final Deque<String> elementStack;
+    private final Deque<Boolean> childrenStack;
+    private boolean documentStarted;
+    private boolean tagInProgress;
+
+    public PrettyXmlWriter(Writer writer) {
+        this(writer, new XmlFriendlyNameCoder());
+    }
+
+    public PrettyXmlWriter(Writer writer, NameCoder nameCoder) {
+        super(nameCoder);
+        this.writer = writer;
+        this.lineSeparator = System.lineSeparator();
+        this.elementStack = new ArrayDeque<>();
+        this.childrenStack = new ArrayDeque<>();
+    }
+
+    public void startDocument() {
+        write(DECLARATION);
+        documentStarted = true;
+    }
+
+    public void endDocument() {
+        write(lineSeparator);
+        flush();
+    }
+
+    @Override
+    public void startNode(String name) {
+        finishStartTag();
+        if (!childrenStack.isEmpty()) {
+            childrenStack.pop();
+            childrenStack.push(true);
+        }
+        if (documentStarted || !elementStack.isEmpty()) {
+            newLine(elementStack.size());
+        }
+        String encodedName = encodeNode(name);
+        write("<");
+        write(encodedName);
+        elementStack.push(encodedName);
+        childrenStack.push(false);
+        tagInProgress = true;
+    }
+
+    @Override
+    public void addAttribute(String name, String value) {
+        write(" ");
+        write(encodeAttribute(name));
+        write("=\"");
+        writeAttributeValue(value);
+        write("\"");
+    }
+
+    @Override
+    public void setValue(String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        finishStartTag();
+        writeText(text);
+    }
+
+    @Override
+    public void endNode() {
+        String name = elementStack.pop();
+        boolean hasChildren = childrenStack.pop();
+        if (tagInProgress) {
+            write("/>");
+            tagInProgress = false;
+        } else {
+            if (hasChildren) {
+                newLine(elementStack.size());
+            }
+            write("</");
+            write(name);
+            write(">");
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private void finishStartTag() {
+        if (tagInProgress) {
+            write(">");
+            tagInProgress = false;
+        }
+    }
+
+    private void newLine(int depth) {
+        write(lineSeparator);
+        for (int i = 0; i < depth; i++) {
+            write(INDENT);
+        }
+    }
+
+    private void writeText(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> write("&amp;");
+                case '<' -> write("&lt;");
+                case '>' -> write("&gt;");
+                case '\r' -> {
+                    if (i + 1 < length && text.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    write(lineSeparator);
+                }
+                case '\n' -> write(lineSeparator);
+                default -> writeChar(c);
+            }
+        }
+    }
+
+    private void writeAttributeValue(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> write("&amp;");
+                case '<' -> write("&lt;");
+                case '>' -> write("&gt;");
+                case '"' -> write("&quot;");
+                case '\t', '\n', '\r' -> write(" ");
+                default -> writeChar(c);
+            }
+        }
+    }
+
+    private void writeChar(char c) {
+        try {
+            if (c >= 0x7F && c <= 0x9F) {
+                writer.write("&#" + (int) c + ";");
+            } else {
+                writer.write(c);
+            }
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private void write(String s) {
+        try {
+            writer.write(s);
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.service;
+
+import org.example.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+
+public class Quarantine {
+    private static final String REPORT_SUFFIX = ".error.txt";
+
+    private final Path directory;
+    private final Clock clock;
+    private final Logger LOGGER;
+
+    public Quarantine() {
+        this(Path.of(Configuration.getInstance().getQuarantineDirectory()), Clock.systemUTC());
+    }
+
+    public Quarantine(Path directory, Clock clock) {
+        this.LOGGER = LoggerFactory.getLogger(Quarantine.class);
+        this.directory = directory.toAbsolutePath();
+        this.clock = clock;
+    }
+
+    public Path move(Path file, String stage, Exception error) throws IOException {
+        return move(file, stage, error, 1);
+    }
+
+    public Path move(Path file, String stage, Exception error, int attempts) throws IOException {
+        Files.createDirectories(directory);
+        Path target = moveToUniqueName(file);
+        Path report = directory.resolve(target.getFileName() + REPORT_SUFFIX);
+        Files.writeString(report, report(file, stage, error, attempts), StandardCharsets.UTF_8);
+        LOGGER.warn("File {} has been quarantined to {}, see {}", file, target, report);
+        return target;
+    }
+
+    private Path moveToUniqueName(Path file) throws IOException {
+        String fileName = String.valueOf(file.getFileName());
+        int dot = fileName.indexOf('.');
+        String stem = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int copy = 1; ; copy++) {
+            Path target = directory.resolve(copy == 1 ? fileName : String.format("%s.%d%s", stem, copy, extension));
+            if (Files.exists(target) || Files.exists(directory.resolve(target.getFileName() + REPORT_SUFFIX))) {
+                continue;
+            }
+            try {
+                return Files.move(file, target);
+            } catch (FileAlreadyExistsException e) {
+                LOGGER.debug("File {} appeared while quarantining {}, trying another name", target, file);
+            }
+        }
+    }
+
+    private String report(Path file, String stage, Exception error, int attempts) {
+        StringBuilder builder = new StringBuilder();
+        String lineSeparator = System.lineSeparator();
+        builder.append("file=").append(file.toAbsolutePath()).append(lineSeparator);
+        builder.append("time=").append(Instant.now(clock)).append(lineSeparator);
+        builder.append("stage=").append(stage).append(lineSeparator);
+        builder.append("attempts=").append(attempts).append(lineSeparator);
+        builder.append("type=").append(error.getClass().getName()).append(lineSeparator);
+        if (error instanceof SAXParseException parseException) {
+            builder.append("line=").append(parseException.getLineNumber()).append(lineSeparator);
+            builder.append("column=").append(parseException.getColumnNumber()).append(lineSeparator);
+        }
+        builder.append("error=").append(singleLine(error.getMessage())).append(lineSeparator);
+        return builder.toString();
+    }
+
+    private static String singleLine(String message) {
+        return message == null ? "" : message.replaceAll("\\s*[\\r\\n]+\\s*", " ").trim();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
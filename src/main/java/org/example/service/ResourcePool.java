@@ -0,0 +1,123 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class ResourcePool<T> {
+    private final String name;
+    private final Supplier<T> factory;
+    private final BlockingQueue<T> idle;
+    private final AtomicInteger created;
+    private final LongAdder borrows;
+    private final LongAdder misses;
+    private final LongAdder borrowNanos;
+    private final LongAccumulator maxBorrowNanos;
+    private final Logger LOGGER;
+
+    public ResourcePool(String name, int maxIdle, Supplier<T> factory) {
+        this.LOGGER = LoggerFactory.getLogger(ResourcePool.class);
+        this.name = name;
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+        this.created = new AtomicInteger();
+        this.borrows = new LongAdder();
+        this.misses = new LongAdder();
+        this.borrowNanos = new LongAdder();
+        this.maxBorrowNanos = new LongAccumulator(Long::max, 0);
+    }
+
+    public void warmUp(int count) {
+        LOGGER.debug("Warming up pool {} with {} instances", name, count);
+        for (int i = 0; i < count && idle.remainingCapacity() > 0; i++) {
+            idle.offer(create());
+        }
+    }
+
+    public T borrow() {
+        long start = System.nanoTime();
+        T resource = idle.poll();
+        if (resource == null) {
+            misses.increment();
+            resource = create();
+        }
+        long elapsed = System.nanoTime() - start;
+        borrows.increment();
+        borrowNanos.add(elapsed);
+        maxBorrowNanos.accumulate(elapsed);
+        return resource;
+    }
+
+    public void release(T resource) {
+        if (!idle.offer(resource)) {
+            LOGGER.debug("Pool {} is full, dropping instance", name);
+        }
+    }
+
+    public <R, E extends Exception> R use(PooledCall<T, R, E> call) throws E {
+        T resource = borrow();
+        try {
+            return call.apply(resource);
+        } finally {
+            release(resource);
+        }
+    }
+
+    private T create() {
+        created.incrementAndGet();
+        return factory.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+
+    public long getBorrows() {
+        return borrows.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getBorrowNanos() {
+        return borrowNanos.sum();
+    }
+
+    public long getMaxBorrowNanos() {
+        return maxBorrowNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        long borrowCount = getBorrows();
+        return "ResourcePool{" +
+                "name='" + name + '\'' +
+                ", idle=" + getIdle() +
+                ", created=" + getCreated() +
+                ", borrows=" + borrowCount +
+                ", misses=" + getMisses() +
+                ", averageBorrowNanos=" + (borrowCount == 0 ? 0 : getBorrowNanos() / borrowCount) +
+                ", maxBorrowNanos=" + getMaxBorrowNanos() +
+                '}';
+    }
+
+    @FunctionalInterface
+    public interface PooledCall<T, R, E extends Exception> {
+        R apply(T resource) throws E;
+    }
+}
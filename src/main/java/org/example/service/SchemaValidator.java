@@ -0,0 +1,91 @@
+package org.example.service;
+
+import org.example.configuration.Configuration;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SchemaValidator {
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private final String schemaResource;
+    private final Schema schema;
+    private final ResourcePool<Validator> validatorPool;
+    private final Timer validationTimer;
+    private final Logger LOGGER;
+
+    public SchemaValidator() {
+        this(Configuration.getInstance().getValidationSchema());
+    }
+
+    public SchemaValidator(String schemaResource) {
+        this.LOGGER = LoggerFactory.getLogger(SchemaValidator.class);
+        this.schemaResource = schemaResource;
+        this.schema = SCHEMAS.computeIfAbsent(schemaResource, this::compile);
+        Configuration configuration = Configuration.getInstance();
+        this.validatorPool = new ResourcePool<>("validator", configuration.getPoolMaxIdle(), this::createValidator);
+        validatorPool.warmUp(configuration.getPoolWarmUp());
+        this.validationTimer = MetricsRegistry.getInstance().timer("validation_seconds", "Time spent validating one input file against the schema");
+    }
+
+    private Schema compile(String resource) {
+        URL url = SchemaValidator.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            LOGGER.error("Schema {} could not be found on the classpath", resource);
+            throw new IllegalArgumentException(String.format("Schema %s not found", resource));
+        }
+        try {
+            LOGGER.debug("Compiling schema {}", url);
+            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Schema compiled = factory.newSchema(url);
+            LOGGER.debug("Schema {} has been compiled", resource);
+            return compiled;
+        } catch (SAXException e) {
+            LOGGER.error("Schema {} could not be compiled - {}", resource, e.getMessage());
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Validator createValidator() {
+        Validator validator = schema.newValidator();
+        try {
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        } catch (SAXException e) {
+            LOGGER.warn("External access could not be disabled for validator of {} - {}", schemaResource, e.getMessage());
+        }
+        return validator;
+    }
+
+    public void validate(Path file) throws IOException, SAXException {
+        long start = validationTimer.start();
+        Validator validator = validatorPool.borrow();
+        try (InputStream inputStream = InputFiles.open(file)) {
+            StreamSource source = new StreamSource(inputStream, file.toUri().toString());
+            validator.validate(source);
+            LOGGER.debug("File {} is valid against schema {}", file, schemaResource);
+        } finally {
+            validatorPool.release(validator);
+            validationTimer.stop(start);
+        }
+    }
+
+    public String getSchemaResource() {
+        return schemaResource;
+    }
+}
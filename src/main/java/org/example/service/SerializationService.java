@@ -1,29 +1,80 @@
 package org.example.service;
 
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.StreamException;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
 import com.thoughtworks.xstream.security.NoTypePermission;
 import com.thoughtworks.xstream.security.NullPermission;
 import com.thoughtworks.xstream.security.PrimitiveTypePermission;
+import org.example.configuration.BindingEngine;
+import org.example.configuration.Configuration;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
 import org.example.models.Orders;
+import org.example.models.ProductColumns;
 import org.example.models.SupplierProducts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
 import java.util.Collection;
 
 public class SerializationService<T> {
-    private final XStream xStream;
+    private final BindingEngine bindingEngine;
+    private final ResourcePool<XStream> xStreamPool;
+    private final StringInterner interner;
+    private final StaxBinding staxBinding;
+    private final StaxDriver staxDriver;
+    private final XMLInputFactory inputFactory;
+    private final Timer deserializeTimer;
+    private final Timer serializeTimer;
     private final Logger LOGGER;
 
     public SerializationService() {
+        this(Configuration.getInstance().getBindingEngine());
+    }
+
+    public SerializationService(BindingEngine bindingEngine) {
+        this(bindingEngine, StringInterner.getInstance());
+    }
+
+    public SerializationService(BindingEngine bindingEngine, StringInterner interner) {
         LOGGER = LoggerFactory.getLogger(SerializationService.class);
+        Configuration configuration = Configuration.getInstance();
+        this.bindingEngine = bindingEngine;
+        this.interner = interner;
+        this.staxBinding = new StaxBinding(interner);
+        this.staxDriver = new StaxDriver();
+        this.inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.deserializeTimer = metrics.timer("deserialize_seconds", "Time spent deserializing one input file");
+        this.serializeTimer = metrics.timer("serialize_seconds", "Time spent serializing one object");
+
+        LOGGER.debug("Initializing XStream pool");
+        xStreamPool = new ResourcePool<>("xstream", configuration.getPoolMaxIdle(), this::createXStream);
+        if (bindingEngine == BindingEngine.XSTREAM) {
+            xStreamPool.warmUp(configuration.getPoolWarmUp());
+        }
+        LOGGER.debug("XStream pool initialized");
+        LOGGER.debug("Serialization Service created with {} binding", bindingEngine);
+    }
 
+    private XStream createXStream() {
         LOGGER.debug("Initializing XStream");
-        xStream = new XStream(new StaxDriver());
+        XStream xStream = new XStream(new StaxDriver());
 
         LOGGER.debug("Configuring XStream...");
         xStream.addPermission(NoTypePermission.NONE);
@@ -31,38 +82,181 @@ public class SerializationService<T> {
         xStream.addPermission(PrimitiveTypePermission.PRIMITIVES);
         xStream.allowTypeHierarchy(Collection.class);
         xStream.allowTypesByWildcard(new String[]{"org.example.**"});
-        xStream.autodetectAnnotations(true);
-
         xStream.processAnnotations(SupplierProducts.class);
         xStream.processAnnotations(Orders.class);
+        if (interner.getCapacity() > 0) {
+            xStream.registerConverter(new InterningStringConverter(interner));
+        }
 
         LOGGER.debug("XStream configured");
         LOGGER.debug("XStream initialized");
-        LOGGER.debug("Serialization Service created");
+        return xStream;
+    }
+
+    public ResourcePool<XStream> getXStreamPool() {
+        return xStreamPool;
+    }
+
+    public BindingEngine getBindingEngine() {
+        return bindingEngine;
     }
 
     public T deserialize(File xml) throws AbstractReflectionConverter.UnknownFieldException, CannotResolveClassException {
         LOGGER.debug("Starting deserialization");
         T t;
+        long start = deserializeTimer.start();
         try {
-            LOGGER.debug(String.format("Try to extract object from file %s", xml.getAbsolutePath()));
-            t = (T) xStream.fromXML(xml);
-            LOGGER.info(String.format("Object %s was extracted from file %s", t.getClass().getName(), xml.getAbsolutePath()));
+            LOGGER.debug("Try to extract object from file {}", xml.getAbsolutePath());
+            t = read(xml);
+            LOGGER.info("Object {} was extracted from file {}", t.getClass().getName(), xml.getAbsolutePath());
         } catch (AbstractReflectionConverter.UnknownFieldException e) {
-            LOGGER.error(String.format("Wrong xml tag found in file %s - %s", xml.getAbsolutePath(), e.getMessage()));
+            LOGGER.error("Wrong xml tag found in file {} - {}", xml.getAbsolutePath(), e.getMessage());
             throw e;
         } catch (CannotResolveClassException e) {
-            LOGGER.error(String.format("Invalid xml tag found in file %s - %s", xml.getAbsolutePath(), e.getMessage()));
+            LOGGER.error("Invalid xml tag found in file {} - {}", xml.getAbsolutePath(), e.getMessage());
             throw e;
+        } finally {
+            deserializeTimer.stop(start);
         }
         LOGGER.debug("Deserialization finished");
         return t;
     }
 
+    public ProductColumns deserializeColumns(File xml) throws AbstractReflectionConverter.UnknownFieldException, CannotResolveClassException {
+        LOGGER.debug("Starting columnar deserialization");
+        ProductColumns columns;
+        long start = deserializeTimer.start();
+        try {
+            columns = readColumns(xml);
+            LOGGER.info("{} products were extracted from file {}", columns.size(), xml.getAbsolutePath());
+        } catch (AbstractReflectionConverter.UnknownFieldException e) {
+            LOGGER.error("Wrong xml tag found in file {} - {}", xml.getAbsolutePath(), e.getMessage());
+            throw e;
+        } catch (CannotResolveClassException e) {
+            LOGGER.error("Invalid xml tag found in file {} - {}", xml.getAbsolutePath(), e.getMessage());
+            throw e;
+        } finally {
+            deserializeTimer.stop(start);
+        }
+        LOGGER.debug("Columnar deserialization finished");
+        return columns;
+    }
+
+    private T read(File xml) {
+        try (InputStream inputStream = InputFiles.open(xml.toPath())) {
+            return bindingEngine == BindingEngine.STAX
+                    ? (T) readStax(inputStream, staxBinding::read)
+                    : xStreamPool.use(xStream -> (T) xStream.fromXML(inputStream));
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private ProductColumns readColumns(File xml) {
+        try (InputStream inputStream = InputFiles.open(xml.toPath())) {
+            return bindingEngine == BindingEngine.STAX
+                    ? readStax(inputStream, staxBinding::readColumns)
+                    : ProductColumns.of((Orders) xStreamPool.use(xStream -> xStream.fromXML(inputStream)));
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private <R> R readStax(InputStream inputStream, StaxRead<R> read) {
+        try {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            try {
+                return read.apply(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new ConversionException(e);
+        }
+    }
+
     public String serialize(T object) {
-        LOGGER.debug(String.format("Starting serialization object %s", object.getClass().getName()));
-        String result = xStream.toXML(object);
+        LOGGER.debug("Starting serialization object {}", object.getClass().getName());
+        String result;
+        long start = serializeTimer.start();
+        try {
+            if (bindingEngine == BindingEngine.STAX) {
+                StringWriter stringWriter = new StringWriter();
+                HierarchicalStreamWriter writer = staxDriver.createWriter(stringWriter);
+                staxBinding.write(object, writer);
+                writer.flush();
+                result = stringWriter.toString();
+            } else {
+                result = xStreamPool.use(xStream -> xStream.toXML(object));
+            }
+        } finally {
+            serializeTimer.stop(start);
+        }
         LOGGER.debug("Serialization finished");
         return result;
     }
+
+    public void serialize(T object, OutputStream sink) {
+        LOGGER.debug("Starting serialization object {} to sink", object.getClass().getName());
+        long start = serializeTimer.start();
+        Utf8Writer utf8Writer = Utf8Writer.forThread(sink);
+        try {
+            if (bindingEngine == BindingEngine.STAX) {
+                HierarchicalStreamWriter writer = staxDriver.createWriter(utf8Writer);
+                staxBinding.write(object, writer);
+                writer.flush();
+            } else {
+                XStream xStream = xStreamPool.borrow();
+                try {
+                    xStream.toXML(object, utf8Writer);
+                } finally {
+                    xStreamPool.release(xStream);
+                }
+            }
+        } finally {
+            try {
+                utf8Writer.detach();
+            } catch (IOException e) {
+                throw new StreamException(e);
+            }
+            serializeTimer.stop(start);
+        }
+        LOGGER.debug("Serialization finished");
+    }
+
+    public void serialize(T object, HierarchicalStreamWriter writer) {
+        LOGGER.debug("Starting serialization object {} to stream", object.getClass().getName());
+        long start = serializeTimer.start();
+        try {
+            if (bindingEngine == BindingEngine.STAX) {
+                staxBinding.write(object, writer);
+            } else {
+                XStream xStream = xStreamPool.borrow();
+                try {
+                    xStream.marshal(object, writer);
+                } finally {
+                    xStreamPool.release(xStream);
+                }
+            }
+        } finally {
+            serializeTimer.stop(start);
+        }
+        LOGGER.debug("Serialization finished");
+    }
+
+    public void serializeSupplier(ProductColumns columns, int supplierId, HierarchicalStreamWriter writer) {
+        LOGGER.debug("Starting serialization of supplier {} from columns", columns.getSupplier(supplierId));
+        long start = serializeTimer.start();
+        try {
+            staxBinding.writeSupplierProducts(columns, supplierId, writer);
+        } finally {
+            serializeTimer.stop(start);
+        }
+        LOGGER.debug("Serialization finished");
+    }
+
+    @FunctionalInterface
+    private interface StaxRead<R> {
+        R apply(XMLStreamReader reader) throws XMLStreamException;
+    }
 }
@@ -0,0 +1,306 @@
+package org.example.service;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.CannotResolveClassException;
+import org.example.models.Order;
+import org.example.models.Orders;
+import org.example.models.Price;
+import org.example.models.Product;
+import org.example.models.ProductColumns;
+import org.example.models.SupplierProducts;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.List;
+
+public class StaxBinding {
+    private static final DateTimeFormatter CREATED_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("uuuu-MM-dd'T'HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .toFormatter();
+
+    private final StringInterner interner;
+
+    public StaxBinding(StringInterner interner) {
+        this.interner = interner;
+    }
+
+    public Object read(XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag();
+        return readRoot(reader, reader.getLocalName());
+    }
+
+    private Object readRoot(XMLStreamReader reader, String root) throws XMLStreamException {
+        return switch (root) {
+            case "orders" -> readOrders(reader);
+            case "order" -> readOrder(reader);
+            case "products" -> readSupplierProducts(reader);
+            case "product" -> readProduct(reader);
+            case "price" -> readPrice(reader);
+            default -> throw new CannotResolveClassException(root);
+        };
+    }
+
+    public ProductColumns readColumns(XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag();
+        String root = reader.getLocalName();
+        if (!"orders".equals(root)) {
+            Object value = readRoot(reader, root);
+            throw new ConversionException(String.format("Expected orders but found %s", value.getClass().getName()));
+        }
+        ProductColumns columns = new ProductColumns();
+        while (nextElement(reader)) {
+            expectElement(reader, Orders.class, "order");
+            Order order = readOrderAttributes(reader);
+            columns.addOrder();
+            while (nextElement(reader)) {
+                expectElement(reader, Order.class, "product");
+                columns.add(readProduct(reader), order.getID());
+            }
+        }
+        return columns;
+    }
+
+    public Orders readOrders(XMLStreamReader reader) throws XMLStreamException {
+        Orders orders = new Orders();
+        while (nextElement(reader)) {
+            expectElement(reader, Orders.class, "order");
+            orders.getOrders().add(readOrder(reader));
+        }
+        return orders;
+    }
+
+    public Order readOrder(XMLStreamReader reader) throws XMLStreamException {
+        Order order = readOrderAttributes(reader);
+        while (nextElement(reader)) {
+            expectElement(reader, Order.class, "product");
+            order.getProducts().add(readProduct(reader));
+        }
+        return order;
+    }
+
+    private Order readOrderAttributes(XMLStreamReader reader) {
+        Order order = new Order();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String value = reader.getAttributeValue(i);
+            switch (reader.getAttributeLocalName(i)) {
+                case "created" -> order.setCreated(parseCreated(value));
+                case "ID" -> order.setID(parseInteger(value));
+                default -> {
+                }
+            }
+        }
+        return order;
+    }
+
+    public SupplierProducts readSupplierProducts(XMLStreamReader reader) throws XMLStreamException {
+        SupplierProducts supplierProducts = new SupplierProducts(null);
+        while (nextElement(reader)) {
+            expectElement(reader, SupplierProducts.class, "product");
+            supplierProducts.addProduct(readProduct(reader));
+        }
+        return supplierProducts;
+    }
+
+    public Product readProduct(XMLStreamReader reader) throws XMLStreamException {
+        Product product = new Product();
+        while (nextElement(reader)) {
+            String field = reader.getLocalName();
+            switch (field) {
+                case "description" -> {
+                    checkUnset(product.getDescription(), field);
+                    product.setDescription(interner.intern(reader.getElementText()));
+                }
+                case "gtin" -> {
+                    checkUnset(product.getGtin(), field);
+                    product.setGtin(interner.intern(reader.getElementText()));
+                }
+                case "price" -> {
+                    checkUnset(product.getPrice(), field);
+                    product.setPrice(readPrice(reader));
+                }
+                case "supplier" -> {
+                    checkUnset(product.getSupplier(), field);
+                    product.setSupplier(interner.intern(reader.getElementText()));
+                }
+                case "orderid" -> {
+                    checkUnset(product.getOrderID(), field);
+                    product.setOrderID(parseInteger(reader.getElementText()));
+                }
+                default -> throw new AbstractReflectionConverter.UnknownFieldException(Product.class.getName(), field);
+            }
+        }
+        return product;
+    }
+
+    public Price readPrice(XMLStreamReader reader) throws XMLStreamException {
+        Price price = new Price();
+        price.setCurrency(interner.intern(reader.getAttributeValue(null, "currency")));
+        String value = reader.getElementText();
+        try {
+            price.setValue(Float.valueOf(value));
+        } catch (NumberFormatException e) {
+            throw new ConversionException(String.format("Invalid price '%s'", value), e);
+        }
+        return price;
+    }
+
+    public void write(Object object, HierarchicalStreamWriter writer) {
+        if (object instanceof Orders orders) {
+            writeOrders(orders, writer);
+        } else if (object instanceof Order order) {
+            writeOrder(order, writer);
+        } else if (object instanceof SupplierProducts supplierProducts) {
+            writeSupplierProducts(supplierProducts, writer);
+        } else if (object instanceof Product product) {
+            writeProduct(product, writer);
+        } else if (object instanceof Price price) {
+            writePrice(price, writer);
+        } else {
+            throw new ConversionException(String.format("No binding for type %s", object.getClass().getName()));
+        }
+    }
+
+    public void writeOrders(Orders orders, HierarchicalStreamWriter writer) {
+        writer.startNode("orders");
+        for (Order order : orders.getOrders()) {
+            writeOrder(order, writer);
+        }
+        writer.endNode();
+    }
+
+    public void writeOrder(Order order, HierarchicalStreamWriter writer) {
+        writer.startNode("order");
+        if (order.getCreated() != null) {
+            writer.addAttribute("created", CREATED_FORMATTER.format(order.getCreated()));
+        }
+        if (order.getID() != null) {
+            writer.addAttribute("ID", order.getID().toString());
+        }
+        writeProducts(order.getProducts(), writer);
+        writer.endNode();
+    }
+
+    public void writeSupplierProducts(SupplierProducts supplierProducts, HierarchicalStreamWriter writer) {
+        writer.startNode("products");
+        writeProducts(supplierProducts.getProducts(), writer);
+        writer.endNode();
+    }
+
+    public void writeSupplierProducts(ProductColumns columns, int supplierId, HierarchicalStreamWriter writer) {
+        writer.startNode("products");
+        int count = columns.getProductCount(supplierId);
+        for (int position = 0; position < count; position++) {
+            int index = columns.getProductIndex(supplierId, position);
+            writer.startNode("product");
+            writeField("description", columns.getDescription(index), writer);
+            writeField("gtin", columns.getGtin(index), writer);
+            if (columns.hasPrice(index)) {
+                writer.startNode("price");
+                String currency = columns.getCurrency(index);
+                if (currency != null) {
+                    writer.addAttribute("currency", currency);
+                }
+                if (columns.hasPriceValue(index)) {
+                    writer.setValue(Float.toString(columns.getPriceValue(index)));
+                }
+                writer.endNode();
+            }
+            if (columns.hasOrderId(index)) {
+                writeField("orderid", Integer.toString(columns.getOrderId(index)), writer);
+            }
+            writer.endNode();
+        }
+        writer.endNode();
+    }
+
+    private void writeProducts(List<Product> products, HierarchicalStreamWriter writer) {
+        if (products == null) {
+            return;
+        }
+        for (Product product : products) {
+            writeProduct(product, writer);
+        }
+    }
+
+    public void writeProduct(Product product, HierarchicalStreamWriter writer) {
+        writer.startNode("product");
+        writeField("description", product.getDescription(), writer);
+        writeField("gtin", product.getGtin(), writer);
+        if (product.getPrice() != null) {
+            writePrice(product.getPrice(), writer);
+        }
+        writeField("supplier", product.getSupplier(), writer);
+        writeField("orderid", product.getOrderID(), writer);
+        writer.endNode();
+    }
+
+    public void writePrice(Price price, HierarchicalStreamWriter writer) {
+        writer.startNode("price");
+        if (price.getCurrency() != null) {
+            writer.addAttribute("currency", price.getCurrency());
+        }
+        if (price.getValue() != null) {
+            writer.setValue(price.getValue().toString());
+        }
+        writer.endNode();
+    }
+
+    private void writeField(String name, Object value, HierarchicalStreamWriter writer) {
+        if (value == null) {
+            return;
+        }
+        writer.startNode(name);
+        writer.setValue(value.toString());
+        writer.endNode();
+    }
+
+    private boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void expectElement(XMLStreamReader reader, Class<?> parent, String name) {
+        if (!name.equals(reader.getLocalName())) {
+            throw new AbstractReflectionConverter.UnknownFieldException(parent.getName(), reader.getLocalName());
+        }
+    }
+
+    private void checkUnset(Object value, String field) {
+        if (value != null) {
+            throw new AbstractReflectionConverter.DuplicateFieldException(field);
+        }
+    }
+
+    private LocalDateTime parseCreated(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ConversionException(String.format("Invalid creation date '%s'", value), e);
+        }
+    }
+
+    private Integer parseInteger(String value) {
+        try {
+            return Integer.decode(value);
+        } catch (NumberFormatException e) {
+            throw new ConversionException(String.format("Invalid number '%s'", value), e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.service;
+
+import com.thoughtworks.xstream.io.StreamException;
+import org.example.configuration.Configuration;
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.OutputFileResult;
+import org.example.models.Price;
+import org.example.models.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StreamingOrderSplitter {
+    private final XmlWriter xmlWriter;
+    private final XMLInputFactory inputFactory;
+    private final Counter ordersCounter;
+    private final Counter productsCounter;
+    private final Logger LOGGER;
+
+    public StreamingOrderSplitter(XmlWriter xmlWriter) {
+        this.xmlWriter = xmlWriter;
+        this.LOGGER = LoggerFactory.getLogger(StreamingOrderSplitter.class);
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        ordersCounter = metrics.counter("orders_total", "Orders read from input files");
+        productsCounter = metrics.counter("products_total", "Products read from input files");
+    }
+
+    public List<OutputFileResult> split(File inputFile, Integer fileNumber) throws IOException, XMLStreamException {
+        return split(inputFile, fileNumber, Path.of(Configuration.getInstance().getOutputDirectory()));
+    }
+
+    public List<OutputFileResult> split(File inputFile, Integer fileNumber, Path outputDirectory) throws IOException, XMLStreamException {
+        LOGGER.debug("Start streaming file {}", inputFile.getAbsolutePath());
+        Map<String, SupplierOutput> outputs = new HashMap<>();
+        boolean completed = false;
+        try (InputStream inputStream = InputFiles.open(inputFile.toPath())) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            try {
+                readOrders(reader, fileNumber, outputDirectory, outputs);
+            } finally {
+                reader.close();
+            }
+            List<OutputFileResult> results = new ArrayList<>();
+            for (Map.Entry<String, SupplierOutput> output : outputs.entrySet()) {
+                output.getValue().finish();
+            }
+            for (Map.Entry<String, SupplierOutput> output : outputs.entrySet()) {
+                String path = xmlWriter.publishXmlFile(output.getValue().tempPath, outputDirectory, output.getValue().name);
+                output.getValue().published = true;
+                results.add(new OutputFileResult(output.getKey(), path, output.getValue().productCount, null));
+            }
+            completed = true;
+            LOGGER.info("File {} has been split into {} supplier files", inputFile.getAbsolutePath(), results.size());
+            return results;
+        } catch (StreamException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        } finally {
+            if (!completed) {
+                discard(outputs);
+            }
+        }
+    }
+
+    private void readOrders(XMLStreamReader reader, Integer fileNumber, Path outputDirectory, Map<String, SupplierOutput> outputs) throws XMLStreamException, IOException {
+        reader.nextTag();
+        expectElement(reader, "orders");
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            expectElement(reader, "order");
+            Integer orderID = parseOrderID(reader);
+            ordersCounter.increment();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                expectElement(reader, "product");
+                Product product = readProduct(reader);
+                product.setOrderID(orderID);
+                productsCounter.increment();
+                route(product, fileNumber, outputDirectory, outputs);
+            }
+        }
+    }
+
+    private Product readProduct(XMLStreamReader reader) throws XMLStreamException {
+        Product product = new Product();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description" -> product.setDescription(reader.getElementText());
+                case "gtin" -> product.setGtin(reader.getElementText());
+                case "supplier" -> product.setSupplier(reader.getElementText());
+                case "orderid" -> reader.getElementText();
+                case "price" -> {
+                    String currency = reader.getAttributeValue(null, "currency");
+                    product.setPrice(new Price(currency, parsePriceValue(reader)));
+                }
+                default -> throw new XMLStreamException(String.format("Unknown element %s", reader.getLocalName()), reader.getLocation());
+            }
+        }
+        return product;
+    }
+
+    private Integer parseOrderID(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "ID");
+        try {
+            return id == null ? null : Integer.decode(id.trim());
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException(String.format("Invalid order ID %s", id), reader.getLocation());
+        }
+    }
+
+    private Float parsePriceValue(XMLStreamReader reader) throws XMLStreamException {
+        String value = reader.getElementText().trim();
+        try {
+            return value.isEmpty() ? null : Float.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException(String.format("Invalid price %s", value), reader.getLocation());
+        }
+    }
+
+    private void route(Product product, Integer fileNumber, Path outputDirectory, Map<String, SupplierOutput> outputs) throws IOException {
+        SupplierOutput output = outputs.get(product.getSupplier());
+        if (output == null) {
+            String name = String.format("%s%s", product.getSupplier(), fileNumber);
+            String tempPath = xmlWriter.createTempXmlFile(outputDirectory, name);
+            output = new SupplierOutput(name, tempPath, xmlWriter.openXmlStream(tempPath));
+            outputs.put(product.getSupplier(), output);
+        }
+        output.write(product);
+    }
+
+    private void expectElement(XMLStreamReader reader, String name) throws XMLStreamException {
+        if (!name.equals(reader.getLocalName())) {
+            throw new XMLStreamException(String.format("Expected element %s but found %s", name, reader.getLocalName()), reader.getLocation());
+        }
+    }
+
+    private void discard(Map<String, SupplierOutput> outputs) {
+        for (SupplierOutput output : outputs.values()) {
+            if (output.published) {
+                continue;
+            }
+            try {
+                output.writer.close();
+            } catch (StreamException e) {
+                LOGGER.warn("Partial file {} could not be closed - {}", output.tempPath, e.getMessage());
+            }
+            try {
+                Files.deleteIfExists(Path.of(output.tempPath));
+            } catch (IOException e) {
+                LOGGER.warn("Partial file {} could not be removed - {}", output.tempPath, e.getMessage());
+            }
+        }
+    }
+
+    private static class SupplierOutput {
+        private final String name;
+        private final String tempPath;
+        private final PrettyXmlWriter writer;
+        private boolean published;
+        private int productCount;
+
+        private SupplierOutput(String name, String tempPath, PrettyXmlWriter writer) {
+            this.name = name;
+            this.tempPath = tempPath;
+            this.writer = writer;
+            writer.startDocument();
+            writer.startNode("products");
+        }
+
+        private void write(Product product) {
+            productCount++;
+            writer.startNode("product");
+            writeLeaf("description", product.getDescription());
+            writeLeaf("gtin", product.getGtin());
+            Price price = product.getPrice();
+            if (price != null) {
+                writer.startNode("price");
+                if (price.getCurrency() != null) {
+                    writer.addAttribute("currency", price.getCurrency());
+                }
+                if (price.getValue() != null) {
+                    writer.setValue(price.getValue().toString());
+                }
+                writer.endNode();
+            }
+            if (product.getOrderID() != null) {
+                writeLeaf("orderid", product.getOrderID().toString());
+            }
+            writer.endNode();
+        }
+
+        private void writeLeaf(String name, String value) {
+            if (value != null) {
+                writer.startNode(name);
+                writer.setValue(value);
+                writer.endNode();
+            }
+        }
+
+        private void finish() {
+            writer.endNode();
+            writer.endDocument();
+            writer.close();
+        }
+    }
+}
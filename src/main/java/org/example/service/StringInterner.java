@@ -0,0 +1,62 @@
+package org.example.service;
+
+import org.example.configuration.Configuration;
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class StringInterner {
+    private static StringInterner instance = null;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maxLength;
+    private final Counter hits;
+    private final Counter misses;
+
+    public StringInterner(int size, int maxLength, MetricsRegistry metrics) {
+        int capacity = size <= 0 ? 0 : Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxLength = maxLength;
+        this.hits = metrics.counter("intern_hits_total", "Deserialized strings replaced by a cached instance");
+        this.misses = metrics.counter("intern_misses_total", "Deserialized strings stored in the interning cache");
+        metrics.gauge("intern_hit_ratio_percent", "Share of interned strings found in the cache", this::getHitRatioPercent);
+    }
+
+    public static synchronized StringInterner getInstance() {
+        if (instance == null) {
+            Configuration configuration = Configuration.getInstance();
+            instance = new StringInterner(configuration.getInternCacheSize(), configuration.getInternMaxLength(),
+                    MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+
+    public String intern(String value) {
+        if (value == null || table.length() == 0 || value.length() > maxLength) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String cached = table.get(index);
+        if (value.equals(cached)) {
+            hits.increment();
+            return cached;
+        }
+        table.set(index, value);
+        misses.increment();
+        return value;
+    }
+
+    public int getCapacity() {
+        return table.length();
+    }
+
+    public long getHitRatioPercent() {
+        long hitCount = hits.getValue();
+        long total = hitCount + misses.getValue();
+        return total == 0 ? 0 : hitCount * 100 / total;
+    }
+}
@@ -0,0 +1,407 @@
+package org.example.service;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import org.example.configuration.Configuration;
+import org.example.configuration.FsyncPolicy;
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.SupplierProducts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class SupplierFileAggregator {
+    private static final String ROOT = "products";
+    private static final String MARKER_START = "<!-- input ";
+    private static final String MARKER_END = " -->";
+
+    private final SerializationService<SupplierProducts> serializationService;
+    private final Path outputDirectory;
+    private final DateTimeFormatter periodFormatter;
+    private final long maxFileBytes;
+    private final long idleCloseMillis;
+    private final int maxOpenFiles;
+    private final FsyncPolicy fsyncPolicy;
+    private final Clock clock;
+    private final byte[] header;
+    private final byte[] closing;
+    private final String lineSeparator;
+    private final Map<String, SupplierFile> files;
+    private final LinkedHashMap<SupplierFile, Boolean> openFiles;
+    private final ScheduledExecutorService idleCloser;
+    private final Counter appends;
+    private final Counter rotations;
+    private final Counter evictions;
+    private final Logger LOGGER;
+
+    public SupplierFileAggregator(SerializationService<SupplierProducts> serializationService) {
+        this(serializationService, Path.of(Configuration.getInstance().getOutputDirectory()));
+    }
+
+    public SupplierFileAggregator(SerializationService<SupplierProducts> serializationService, Path outputDirectory) {
+        this(serializationService,
+                outputDirectory,
+                Configuration.getInstance().getAggregationPeriodPattern(),
+                Configuration.getInstance().getAggregationMaxFileBytes(),
+                Configuration.getInstance().getAggregationIdleCloseMillis(),
+                Configuration.getInstance().getAggregationMaxOpenFiles(),
+                Configuration.getInstance().getOutputFsync(),
+                Clock.systemDefaultZone());
+    }
+
+    public SupplierFileAggregator(SerializationService<SupplierProducts> serializationService, Path outputDirectory,
+                                  String periodPattern, long maxFileBytes, long idleCloseMillis, int maxOpenFiles,
+                                  FsyncPolicy fsyncPolicy, Clock clock) {
+        this.LOGGER = LoggerFactory.getLogger(SupplierFileAggregator.class);
+        this.serializationService = serializationService;
+        this.outputDirectory = outputDirectory.toAbsolutePath();
+        this.periodFormatter = DateTimeFormatter.ofPattern(periodPattern);
+        this.maxFileBytes = maxFileBytes;
+        this.idleCloseMillis = idleCloseMillis;
+        this.maxOpenFiles = maxOpenFiles;
+        this.fsyncPolicy = fsyncPolicy;
+        this.clock = clock;
+        this.lineSeparator = System.lineSeparator();
+        this.header = String.format("<?xml version=\"1.0\" encoding=\"UTF-8\"?>%s<%s>", lineSeparator, ROOT).getBytes(StandardCharsets.UTF_8);
+        this.closing = String.format("%s</%s>%s", lineSeparator, ROOT, lineSeparator).getBytes(StandardCharsets.UTF_8);
+        this.files = new ConcurrentHashMap<>();
+        this.openFiles = new LinkedHashMap<>(16, 0.75f, true);
+        this.idleCloser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aggregation-idle-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.max(idleCloseMillis / 2, 100);
+        idleCloser.scheduleWithFixedDelay(this::closeIdleFiles, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.appends = metrics.counter("aggregation_appends_total", "Product batches appended to aggregated supplier files");
+        this.rotations = metrics.counter("aggregation_rotations_total", "Aggregated supplier files rotated by time or size");
+        this.evictions = metrics.counter("aggregation_evictions_total", "Aggregated supplier files closed to stay under the open files limit");
+        metrics.gauge("aggregation_open_files", "Aggregated supplier files currently open", this::getOpenFileCount);
+    }
+
+    public String append(SupplierProducts supplierProducts) throws IOException {
+        if (supplierProducts.getProducts().isEmpty()) {
+            return null;
+        }
+        return append(supplierProducts.getSupplier(), writer -> serializationService.serialize(supplierProducts, writer));
+    }
+
+    public String append(String supplier, Consumer<HierarchicalStreamWriter> content) throws IOException {
+        return append(supplier, null, content);
+    }
+
+    public String append(String supplier, String inputId, Consumer<HierarchicalStreamWriter> content) throws IOException {
+        byte[] fragment = render(supplier, inputId, content);
+        SupplierFile file = files.computeIfAbsent(supplier, SupplierFile::new);
+        Path path;
+        synchronized (file) {
+            path = file.appendedPath(inputId);
+            if (path != null) {
+                LOGGER.info("Products of supplier {} from input {} are already in {}, skipping", supplier, inputId, path);
+                return path.toString();
+            }
+            path = file.append(inputId, fragment);
+        }
+        appends.increment();
+        markOpen(file);
+        LOGGER.info("Products of supplier {} have been appended to {}", supplier, path);
+        return path.toString();
+    }
+
+    private byte[] render(String supplier, String inputId, Consumer<HierarchicalStreamWriter> content) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrettyXmlWriter writer = new PrettyXmlWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.startDocument();
+        content.accept(writer);
+        writer.endDocument();
+        byte[] document = outputStream.toByteArray();
+        if (!startsWith(document, header) || !endsWith(document, document.length, closing)) {
+            throw new IOException(String.format("Unexpected document layout for supplier %s", supplier));
+        }
+        byte[] fragment = Arrays.copyOfRange(document, header.length, document.length - closing.length);
+        if (inputId == null) {
+            return fragment;
+        }
+        byte[] marker = marker(inputId).getBytes(StandardCharsets.UTF_8);
+        byte[] markedFragment = Arrays.copyOf(marker, marker.length + fragment.length);
+        System.arraycopy(fragment, 0, markedFragment, marker.length, fragment.length);
+        return markedFragment;
+    }
+
+    private String marker(String inputId) {
+        if (inputId.contains("--")) {
+            throw new IllegalArgumentException(String.format("Input id %s cannot be written into an XML comment", inputId));
+        }
+        return String.format("%s    %s%s%s", lineSeparator, MARKER_START, inputId, MARKER_END);
+    }
+
+    private void markOpen(SupplierFile file) {
+        List<SupplierFile> evicted = new ArrayList<>();
+        synchronized (openFiles) {
+            openFiles.put(file, Boolean.TRUE);
+            Iterator<SupplierFile> iterator = openFiles.keySet().iterator();
+            while (openFiles.size() - evicted.size() > maxOpenFiles && iterator.hasNext()) {
+                SupplierFile eldest = iterator.next();
+                if (eldest != file) {
+                    evicted.add(eldest);
+                }
+            }
+            evicted.forEach(openFiles::remove);
+        }
+        for (SupplierFile eldest : evicted) {
+            LOGGER.debug("Closing least recently used file of supplier {}", eldest.supplier);
+            evictions.increment();
+            synchronized (eldest) {
+                eldest.close();
+            }
+        }
+    }
+
+    private void closeIdleFiles() {
+        long now = clock.millis();
+        List<SupplierFile> candidates;
+        synchronized (openFiles) {
+            candidates = new ArrayList<>(openFiles.keySet());
+        }
+        for (SupplierFile file : candidates) {
+            boolean closed;
+            synchronized (file) {
+                closed = now - file.lastWriteMillis >= idleCloseMillis;
+                if (closed) {
+                    LOGGER.debug("Closing idle file of supplier {}", file.supplier);
+                    file.close();
+                }
+            }
+            if (closed) {
+                synchronized (openFiles) {
+                    openFiles.remove(file);
+                }
+            }
+        }
+    }
+
+    public int getOpenFileCount() {
+        synchronized (openFiles) {
+            return openFiles.size();
+        }
+    }
+
+    public void close() {
+        idleCloser.shutdownNow();
+        for (SupplierFile file : files.values()) {
+            synchronized (file) {
+                file.close();
+            }
+        }
+        synchronized (openFiles) {
+            openFiles.clear();
+        }
+        LOGGER.debug("Aggregated supplier files have been closed");
+    }
+
+    private static boolean startsWith(byte[] content, byte[] prefix) {
+        return content.length >= prefix.length && Arrays.equals(content, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static boolean endsWith(byte[] content, int length, byte[] suffix) {
+        return length >= suffix.length && Arrays.equals(content, length - suffix.length, length, suffix, 0, suffix.length);
+    }
+
+    private class SupplierFile {
+        private final String supplier;
+        private final Map<String, Path> inputs;
+        private String period;
+        private int index;
+        private Path path;
+        private FileChannel channel;
+        private long bodyEnd;
+        private long lastWriteMillis;
+        private boolean inputsLoaded;
+
+        SupplierFile(String supplier) {
+            this.supplier = supplier;
+            this.inputs = new HashMap<>();
+        }
+
+        Path appendedPath(String inputId) throws IOException {
+            if (inputId == null) {
+                return null;
+            }
+            rollPeriod();
+            if (!inputsLoaded) {
+                loadInputs();
+            }
+            return inputs.get(inputId);
+        }
+
+        Path append(String inputId, byte[] fragment) throws IOException {
+            rollPeriod();
+            if (channel != null && isFull(fragment.length)) {
+                rotations.increment();
+                close();
+                index++;
+            }
+            if (channel == null) {
+                open(fragment.length);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(fragment.length + closing.length);
+            buffer.put(fragment).put(closing).flip();
+            long position = bodyEnd;
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                restoreClosing();
+                throw e;
+            }
+            bodyEnd += fragment.length;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                channel.force(false);
+            }
+            lastWriteMillis = clock.millis();
+            if (inputId != null) {
+                inputs.put(inputId, path);
+            }
+            return path;
+        }
+
+        private void rollPeriod() {
+            String currentPeriod = LocalDateTime.now(clock).format(periodFormatter);
+            if (!currentPeriod.equals(period)) {
+                if (period != null) {
+                    rotations.increment();
+                }
+                close();
+                period = currentPeriod;
+                index = 0;
+                inputs.clear();
+                inputsLoaded = false;
+            }
+        }
+
+        private void loadInputs() throws IOException {
+            for (int i = 0; ; i++) {
+                Path candidate = pathOf(i);
+                if (!Files.exists(candidate)) {
+                    break;
+                }
+                try (BufferedReader reader = Files.newBufferedReader(candidate, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String trimmed = line.trim();
+                        if (trimmed.startsWith(MARKER_START) && trimmed.endsWith(MARKER_END)) {
+                            inputs.put(trimmed.substring(MARKER_START.length(), trimmed.length() - MARKER_END.length()), candidate);
+                        }
+                    }
+                }
+            }
+            inputsLoaded = true;
+            LOGGER.debug("Found {} inputs already appended for supplier {} in period {}", inputs.size(), supplier, period);
+        }
+
+        private Path pathOf(int fileIndex) {
+            return outputDirectory.resolve(fileIndex == 0
+                    ? String.format("%s-%s.xml", supplier, period)
+                    : String.format("%s-%s-%d.xml", supplier, period, fileIndex));
+        }
+
+        private boolean isFull(int fragmentLength) {
+            return maxFileBytes > 0 && bodyEnd > header.length && bodyEnd + fragmentLength + closing.length > maxFileBytes;
+        }
+
+        private void open(int fragmentLength) throws IOException {
+            Files.createDirectories(outputDirectory);
+            while (true) {
+                path = pathOf(index);
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long size = channel.size();
+                if (size == 0) {
+                    channel.write(ByteBuffer.wrap(header), 0);
+                    bodyEnd = header.length;
+                    LOGGER.info("Aggregated file {} has been created", path);
+                    return;
+                }
+                if (hasClosing(size)) {
+                    bodyEnd = size - closing.length;
+                    if (!isFull(fragmentLength)) {
+                        LOGGER.debug("Aggregated file {} has been reopened", path);
+                        return;
+                    }
+                } else {
+                    LOGGER.warn("Aggregated file {} is not a complete document, starting a new file", path);
+                }
+                channel.close();
+                channel = null;
+                index++;
+            }
+        }
+
+        private void restoreClosing() {
+            try {
+                channel.truncate(bodyEnd);
+                channel.write(ByteBuffer.wrap(closing), bodyEnd);
+            } catch (IOException e) {
+                LOGGER.error("Aggregated file {} could not be restored - {}", path, e.getMessage());
+            }
+            close();
+        }
+
+        private boolean hasClosing(long size) throws IOException {
+            if (size < header.length + closing.length) {
+                return false;
+            }
+            ByteBuffer tail = ByteBuffer.allocate(closing.length);
+            long position = size - closing.length;
+            while (tail.hasRemaining()) {
+                int read = channel.read(tail, position + tail.position());
+                if (read < 0) {
+                    return false;
+                }
+            }
+            return endsWith(tail.array(), closing.length, closing);
+        }
+
+        void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                if (fsyncPolicy != FsyncPolicy.NONE) {
+                    channel.force(false);
+                }
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.error("Aggregated file {} could not be closed - {}", path, e.getMessage());
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+public class Utf8Writer extends Writer {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte REPLACEMENT = '?';
+    private static final ThreadLocal<Utf8Writer> THREAD_WRITER = ThreadLocal.withInitial(Utf8Writer::new);
+
+    private final byte[] buffer;
+    private int position;
+    private char highSurrogate;
+    private OutputStream outputStream;
+
+    public Utf8Writer() {
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public static Utf8Writer forThread(OutputStream outputStream) {
+        Utf8Writer writer = THREAD_WRITER.get();
+        if (writer.outputStream != null) {
+            writer = new Utf8Writer();
+        }
+        writer.outputStream = outputStream;
+        return writer;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            encode(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            encode(text.charAt(i));
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (position > BUFFER_SIZE - 4) {
+            flushBuffer();
+        }
+        if (c < 0x80 && highSurrogate == 0) {
+            buffer[position++] = (byte) c;
+            return;
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            buffer[position++] = REPLACEMENT;
+            encode(c);
+            return;
+        }
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[position++] = REPLACEMENT;
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    public void detach() throws IOException {
+        if (outputStream == null) {
+            return;
+        }
+        try {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                buffer[position++] = REPLACEMENT;
+            }
+            flush();
+        } finally {
+            reset();
+        }
+    }
+
+    public void reset() {
+        position = 0;
+        highSurrogate = 0;
+        outputStream = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        OutputStream target = outputStream;
+        if (target == null) {
+            return;
+        }
+        try {
+            detach();
+        } finally {
+            target.close();
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package org.example.service;
 
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.StreamException;
+import org.example.configuration.CompressionCodec;
 import org.example.configuration.Configuration;
+import org.example.configuration.FsyncPolicy;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -17,26 +23,87 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 public class XmlWriter {
-    private final Transformer transformer;
-    private final DocumentBuilder documentBuilder;
+    private final TransformerFactory transformerFactory;
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final ResourcePool<Transformer> transformerPool;
+    private final ResourcePool<DocumentBuilder> documentBuilderPool;
     private final Logger LOGGER;
     private final Configuration configuration;
+    private final CompressionCodec outputCompression;
+    private final int outputCompressionLevel;
+    private final List<Path> unsyncedFiles;
+    private final Timer writeTimer;
+    private final Timer prettifyTimer;
+    private final Timer fsyncTimer;
+    private final OutputIoScheduler ioScheduler;
 
 
     public XmlWriter() {
+        this(Configuration.getInstance().getOutputCompression(), Configuration.getInstance().getOutputCompressionLevel());
+    }
+
+    public XmlWriter(CompressionCodec outputCompression, int outputCompressionLevel) {
         LOGGER = LoggerFactory.getLogger(XmlWriter.class);
-        try {
+        this.outputCompression = outputCompression;
+        this.outputCompressionLevel = outputCompressionLevel;
+
+        LOGGER.debug("TransformerFactory creating started");
+        transformerFactory = TransformerFactory.newDefaultInstance();
+        LOGGER.debug("TransformerFactory created");
+
+        LOGGER.debug("DocumentBuilderFactory creating started");
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        LOGGER.debug("DocumentBuilderFactory created");
+
+        configuration = Configuration.getInstance();
+        unsyncedFiles = new ArrayList<>();
 
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        writeTimer = metrics.timer("write_seconds", "Time spent writing and publishing one supplier file");
+        prettifyTimer = metrics.timer("prettify_seconds", "Time spent prettifying one supplier file");
+        fsyncTimer = metrics.timer("fsync_seconds", "Time spent forcing one output file to disk");
+        ioScheduler = OutputIoScheduler.getInstance();
+
+        LOGGER.debug("Initializing Transformer and DocumentBuilder pools");
+        transformerPool = new ResourcePool<>("transformer", configuration.getPoolMaxIdle(), this::createTransformer);
+        transformerPool.warmUp(configuration.getPoolWarmUp());
+        documentBuilderPool = new ResourcePool<>("document-builder", configuration.getPoolMaxIdle(), this::createDocumentBuilder);
+        documentBuilderPool.warmUp(configuration.getPoolWarmUp());
+        LOGGER.debug("Transformer and DocumentBuilder pools initialized");
+
+        createOutputFolderIfNotExists();
+    }
+
+    private Transformer createTransformer() {
+        try {
             LOGGER.debug("Trying to create Transformer using TransformerFactory");
-            TransformerFactory transformerFactory = TransformerFactory.newDefaultInstance();
-            transformer = transformerFactory.newTransformer();
+            Transformer transformer;
+            synchronized (transformerFactory) {
+                transformer = transformerFactory.newTransformer();
+            }
             LOGGER.debug("Transformer has been created");
 
             LOGGER.debug("Transformer configuration started");
@@ -47,23 +114,34 @@ public class XmlWriter {
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
             transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
             LOGGER.debug("Transformer has been configured!");
+            return transformer;
+        } catch (TransformerConfigurationException e) {
+            LOGGER.error("There was an error occurred during configuration");
+            throw new RuntimeException(e);
+        }
+    }
 
-            LOGGER.debug("DocumentBuilderFactory creating started");
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            LOGGER.debug("DocumentBuilderFactory created");
-
+    private DocumentBuilder createDocumentBuilder() {
+        try {
             LOGGER.debug("DocumentBuilder creating started");
-            documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            DocumentBuilder documentBuilder;
+            synchronized (documentBuilderFactory) {
+                documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            }
             LOGGER.debug("DocumentBuilder created");
-
-        } catch (TransformerConfigurationException | ParserConfigurationException e) {
+            return documentBuilder;
+        } catch (ParserConfigurationException e) {
             LOGGER.error("There was an error occurred during configuration");
             throw new RuntimeException(e);
         }
+    }
 
-        configuration = Configuration.getInstance();
+    public ResourcePool<Transformer> getTransformerPool() {
+        return transformerPool;
+    }
 
-        createOutputFolderIfNotExists();
+    public ResourcePool<DocumentBuilder> getDocumentBuilderPool() {
+        return documentBuilderPool;
     }
 
     private void createOutputFolderIfNotExists() {
@@ -73,65 +151,311 @@ public class XmlWriter {
                 LOGGER.debug("Creating output folder");
                 Files.createDirectories(outputDir);
             } catch (IOException e) {
-                LOGGER.error(String.format("Error while creating output folder - %s", e.getMessage()));
+                LOGGER.error("Error while creating output folder - {}", e.getMessage());
                 throw new RuntimeException(e);
             }
         }
     }
 
+    public CompressionCodec getOutputCompression() {
+        return outputCompression;
+    }
+
+    private String getXmlFileName(String name) {
+        return String.format("%s.xml%s", name, outputCompression.getExtension());
+    }
+
+    public String getXmlFilePath(String name) {
+        return getXmlFilePath(Path.of(configuration.getOutputDirectory()), name);
+    }
+
+    public String getXmlFilePath(Path outputDirectory, String name) {
+        return outputDirectory.resolve(getXmlFileName(name)).toAbsolutePath().toString();
+    }
+
     public String createXmlFile(String name) throws IOException {
         LOGGER.debug("Creating a file");
-        File xml = new File(String.format("%s/%s.xml", configuration.getOutputDirectory(), name));
+        File xml = new File(configuration.getOutputDirectory(), getXmlFileName(name));
         try {
 
             if (xml.createNewFile()) {
-                LOGGER.debug(String.format("File %s has been created", xml.getName()));
+                LOGGER.debug("File {} has been created", xml.getName());
             } else {
-                LOGGER.debug(String.format("File %s already exists", xml.getName()));
+                LOGGER.debug("File {} already exists", xml.getName());
             }
         } catch (IOException e) {
-            LOGGER.error(String.format("Error when creating the file %s - %s", xml.getName(), e.getMessage()));
+            LOGGER.error("Error when creating the file {} - {}", xml.getName(), e.getMessage());
             throw e;
         }
-        LOGGER.info(String.format("File %s has been created", xml.getAbsolutePath()));
+        LOGGER.info("File {} has been created", xml.getAbsolutePath());
         return xml.getAbsolutePath();
     }
 
     public void writeXmlFile(String path, String xmlString) throws IOException {
-        LOGGER.debug("Creating FileWriter");
-        try (FileWriter xmlWriter = new FileWriter(path)) {
+        long start = writeTimer.start();
+        try (OutputStream outputStream = Compression.compress(outputCompression, ioScheduler.open(Path.of(path), false), outputCompressionLevel)) {
             LOGGER.debug("Write in file");
-            xmlWriter.write(xmlString);
+            outputStream.write(xmlString.getBytes(StandardCharsets.UTF_8));
             LOGGER.debug("File written with success");
         } catch (IOException e) {
-            LOGGER.error(String.format("file could not be written! - %s", e.getMessage()));
+            LOGGER.error("file could not be written! - {}", e.getMessage());
             throw e;
+        } finally {
+            writeTimer.stop(start);
+        }
+    }
+
+    public void writeXmlFile(String path, Consumer<OutputStream> content) throws IOException {
+        long start = writeTimer.start();
+        Path target = Path.of(path);
+        boolean force = configuration.getOutputFsync() == FsyncPolicy.ALWAYS;
+        Path temp = createTempFile(target);
+        boolean published = false;
+        try {
+            try (OutputStream outputStream = Compression.compress(outputCompression, ioScheduler.open(temp, force), outputCompressionLevel)) {
+                LOGGER.debug("Write xml in file");
+                content.accept(outputStream);
+            } catch (StreamException e) {
+                LOGGER.error("file could not be written! - {}", e.getMessage());
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+            }
+            publish(temp, target, force);
+            published = true;
+            LOGGER.info("File {} has been written!", path);
+        } finally {
+            if (!published) {
+                Files.deleteIfExists(temp);
+            }
+            writeTimer.stop(start);
+        }
+    }
+
+    public PrettyXmlWriter openXmlStream(String path) throws IOException {
+        LOGGER.debug("Opening xml stream for file {}", path);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(openOutputStream(path), StandardCharsets.UTF_8));
+            return new PrettyXmlWriter(writer);
+        } catch (IOException e) {
+            LOGGER.error("Xml stream could not be opened! - {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private OutputStream openOutputStream(String path) throws IOException {
+        return Compression.compress(outputCompression, new FileOutputStream(path), outputCompressionLevel);
+    }
+
+    public void writePrettyXmlFile(String path, Consumer<HierarchicalStreamWriter> content) throws IOException {
+        long start = writeTimer.start();
+        Path target = Path.of(path);
+        boolean force = configuration.getOutputFsync() == FsyncPolicy.ALWAYS;
+        Path temp = createTempFile(target);
+        boolean published = false;
+        try {
+            try (OutputStream outputStream = Compression.compress(outputCompression, ioScheduler.open(temp, force), outputCompressionLevel)) {
+                Utf8Writer utf8Writer = Utf8Writer.forThread(outputStream);
+                try {
+                    PrettyXmlWriter writer = new PrettyXmlWriter(utf8Writer);
+                    try {
+                        LOGGER.debug("Write prettified xml in file");
+                        writer.startDocument();
+                        content.accept(writer);
+                        writer.endDocument();
+                    } catch (StreamException e) {
+                        LOGGER.error("file could not be written! - {}", e.getMessage());
+                        throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+                    } finally {
+                        closeXmlStream(writer);
+                    }
+                } finally {
+                    utf8Writer.reset();
+                }
+            }
+            publish(temp, target, force);
+            published = true;
+            LOGGER.info("File {} has been written!", path);
+        } finally {
+            if (!published) {
+                Files.deleteIfExists(temp);
+            }
+            writeTimer.stop(start);
+        }
+    }
+
+    public String createTempXmlFile(String name) throws IOException {
+        return createTempXmlFile(Path.of(configuration.getOutputDirectory()), name);
+    }
+
+    public String createTempXmlFile(Path outputDirectory, String name) throws IOException {
+        return createTempFile(outputDirectory.resolve(getXmlFileName(name))).toString();
+    }
+
+    public String publishXmlFile(String tempPath, String name) throws IOException {
+        return publishXmlFile(tempPath, Path.of(configuration.getOutputDirectory()), name);
+    }
+
+    public String publishXmlFile(String tempPath, Path outputDirectory, String name) throws IOException {
+        Path target = outputDirectory.resolve(getXmlFileName(name)).toAbsolutePath();
+        publish(Path.of(tempPath), target);
+        LOGGER.info("File {} has been published", target);
+        return target.toString();
+    }
+
+    public String linkXmlFile(Path source, Path target) throws IOException {
+        Path temp = createTempFile(target);
+        boolean published = false;
+        try {
+            Files.delete(temp);
+            try {
+                Files.createLink(temp, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                LOGGER.debug("File {} could not be hard linked, copying it - {}", source, e.getMessage());
+                Files.copy(source, temp);
+            }
+            publish(temp, target.toAbsolutePath());
+            published = true;
+            LOGGER.info("File {} has been linked to {}", target, source);
+            return target.toAbsolutePath().toString();
+        } finally {
+            if (!published) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    public void syncPendingFiles() throws IOException {
+        List<Path> pending;
+        synchronized (unsyncedFiles) {
+            pending = new ArrayList<>(unsyncedFiles);
+            unsyncedFiles.clear();
+        }
+        syncFiles(pending);
+    }
+
+    private Path createTempFile(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong());
+            try {
+                return Files.createFile(directory.resolve(String.format(".%s.%s.tmp", target.getFileName(), suffix)));
+            } catch (FileAlreadyExistsException e) {
+                LOGGER.debug("Temporary file for {} already exists, trying another name", target.getFileName());
+            } catch (IOException e) {
+                LOGGER.error("Error when creating a temporary file for {} - {}", target.getFileName(), e.getMessage());
+                throw e;
+            }
+        }
+    }
+
+    private void closeXmlStream(PrettyXmlWriter writer) throws IOException {
+        try {
+            writer.close();
+        } catch (StreamException e) {
+            LOGGER.error("file could not be closed! - {}", e.getMessage());
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        }
+    }
+
+    private void publish(Path temp, Path target) throws IOException {
+        publish(temp, target, false);
+    }
+
+    private void publish(Path temp, Path target, boolean forced) throws IOException {
+        if (configuration.getOutputFsync() == FsyncPolicy.ALWAYS && !forced) {
+            force(temp);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            LOGGER.warn("Atomic move is not supported for {} - {}", target, e.getMessage());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (configuration.getOutputFsync() == FsyncPolicy.ALWAYS) {
+            forceDirectory(target.getParent());
+        } else if (configuration.getOutputFsync() == FsyncPolicy.BATCH) {
+            List<Path> batch = null;
+            synchronized (unsyncedFiles) {
+                unsyncedFiles.add(target);
+                if (unsyncedFiles.size() >= configuration.getOutputFsyncBatchSize()) {
+                    batch = new ArrayList<>(unsyncedFiles);
+                    unsyncedFiles.clear();
+                }
+            }
+            if (batch != null) {
+                syncFiles(batch);
+            }
+        }
+    }
+
+    private void syncFiles(List<Path> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Syncing {} output files", files.size());
+        Set<Path> directories = new HashSet<>();
+        for (Path file : files) {
+            force(file);
+            directories.add(file.getParent());
+        }
+        for (Path directory : directories) {
+            forceDirectory(directory);
+        }
+    }
+
+    private void force(Path file) throws IOException {
+        long start = fsyncTimer.start();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } finally {
+            fsyncTimer.stop(start);
+        }
+    }
+
+    private void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Directory {} could not be synced - {}", directory, e.getMessage());
         }
     }
 
     public void prettifyXmlFile(String path) throws SAXException, IOException, TransformerException {
+        long start = prettifyTimer.start();
         try {
             LOGGER.debug("Creating document");
-            Document document = documentBuilder.parse(new File(path));
+            DocumentBuilder documentBuilder = documentBuilderPool.borrow();
+            Document document;
+            try {
+                document = documentBuilder.parse(new File(path));
+            } finally {
+                documentBuilder.reset();
+                documentBuilderPool.release(documentBuilder);
+            }
             document.setXmlStandalone(true);
 
             LOGGER.debug("Creating source");
             Source source = new DOMSource(document);
-            LOGGER.debug("Creating File writer");
-            FileWriter fileWriter = new FileWriter(path);
             LOGGER.debug("Transforming");
-            transformer.transform(source, new StreamResult(fileWriter));
-            LOGGER.info(String.format("File %s has been transformed!", path));
-            fileWriter.close();
+            try (OutputStream outputStream = ioScheduler.open(Path.of(path), false)) {
+                Transformer transformer = transformerPool.borrow();
+                try {
+                    transformer.transform(source, new StreamResult(outputStream));
+                } finally {
+                    transformerPool.release(transformer);
+                }
+            }
+            LOGGER.info("File {} has been transformed!", path);
         } catch (SAXException e) {
-            LOGGER.error(String.format("Error occurred while parsing the file - %s", e.getMessage()));
+            LOGGER.error("Error occurred while parsing the file - {}", e.getMessage());
             throw e;
         } catch (IOException e) {
-            LOGGER.error(String.format("File error occurred - %s", e.getMessage()));
+            LOGGER.error("File error occurred - {}", e.getMessage());
             throw e;
         } catch (TransformerException e) {
-            LOGGER.error(String.format("Error occurred while transforming the file - %s", e.getMessage()));
+            LOGGER.error("Error occurred while transforming the file - {}", e.getMessage());
             throw e;
+        } finally {
+            prettifyTimer.stop(start);
         }
     }
 }
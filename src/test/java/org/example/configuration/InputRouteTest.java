@@ -0,0 +1,42 @@
+package org.example.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputRouteTest {
+    @Test
+    public void journalKey_primaryRoute_isRelativePath() {
+        InputRoute route = new InputRoute("", Path.of("input"), Path.of("output"));
+
+        assertEquals("orders1.xml", route.journalKey(Path.of("input/orders1.xml")));
+        assertEquals(Path.of("march", "orders1.xml").toString(), route.journalKey(Path.of("input/march/orders1.xml")));
+    }
+
+    @Test
+    public void journalKey_extraRoute_isPrefixedWithRouteName() {
+        InputRoute route = new InputRoute("feeds/acme", Path.of("feeds/acme"), Path.of("output/acme"));
+
+        assertEquals("feeds/acme/orders1.xml", route.journalKey(Path.of("feeds/acme/orders1.xml")));
+    }
+
+    @Test
+    public void outputDirectoryOf_nestedFile_mirrorsSubfolder() {
+        InputRoute route = new InputRoute("", Path.of("input"), Path.of("output"));
+
+        assertEquals(Path.of("output").toAbsolutePath(), route.outputDirectoryOf(Path.of("input/orders1.xml")));
+        assertEquals(Path.of("output", "a", "b").toAbsolutePath(), route.outputDirectoryOf(Path.of("input/a/b/orders1.xml")));
+    }
+
+    @Test
+    public void contains_fileOutsideInputDirectory_returnsFalse() {
+        InputRoute route = new InputRoute("feeds/acme", Path.of("feeds/acme"), Path.of("output/acme"));
+
+        assertTrue(route.contains(Path.of("feeds/acme/sub/orders1.xml")));
+        assertFalse(route.contains(Path.of("feeds/acme2/orders1.xml")));
+    }
+}
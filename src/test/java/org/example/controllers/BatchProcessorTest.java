@@ -0,0 +1,82 @@
+package org.example.controllers;
+
+import org.example.configuration.Configuration;
+import org.example.models.BatchSummary;
+import org.example.service.SerializationService;
+import org.example.service.XmlWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchProcessorTest {
+    private static final Path ORDERS = Path.of("test/orders_test.xml");
+    private BatchProcessor batchProcessor;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void init() throws IOException {
+        Path output = Path.of(Configuration.getInstance().getOutputDirectory());
+        if (Files.isRegularFile(output)) {
+            Files.delete(output);
+        }
+        FileScanner fileScanner = new FileScanner(new SerializationService<>(), new SerializationService<>(), new XmlWriter());
+        batchProcessor = new BatchProcessor(fileScanner, 2);
+        Files.copy(ORDERS, directory.resolve("orders1.xml"));
+        Files.copy(ORDERS, directory.resolve("orders2.xml"));
+        Files.copy(ORDERS, directory.resolve("invoices3.xml"));
+    }
+
+    @Test
+    public void resolveFiles_directory_returnsMatchingFileNames() throws IOException {
+        List<Path> files = batchProcessor.resolveFiles(directory.toString());
+
+        assertEquals(List.of(directory.resolve("orders1.xml"), directory.resolve("orders2.xml")), files);
+    }
+
+    @Test
+    public void resolveFiles_glob_returnsMatchingFiles() throws IOException {
+        List<Path> files = batchProcessor.resolveFiles(directory + "/*2.xml");
+
+        assertEquals(List.of(directory.resolve("orders2.xml")), files);
+    }
+
+    @Test
+    public void run_directory_summarizesAllFiles() throws IOException, InterruptedException {
+        BatchSummary summary = batchProcessor.run(directory.toString());
+
+        assertEquals(2, summary.getFiles());
+        assertEquals(0, summary.getFailedFiles());
+        assertEquals(10, summary.getProducts());
+        assertEquals(3, summary.getSupplierCount());
+        assertEquals(2 * Files.size(ORDERS), summary.getBytes());
+    }
+
+    @Test
+    public void run_globOverSubfolders_mirrorsSubfoldersUnderOutput() throws IOException, InterruptedException {
+        Path archive = directory.resolve("archive");
+        Path output = directory.resolve("output");
+        Files.createDirectories(archive.resolve("a"));
+        Files.createDirectories(archive.resolve("b"));
+        Files.copy(ORDERS, archive.resolve("a/orders1.xml"));
+        Files.copy(ORDERS, archive.resolve("b/orders1.xml"));
+        BatchProcessor processor = new BatchProcessor(
+                new FileScanner(new SerializationService<>(), new SerializationService<>(), new XmlWriter()), 2, output);
+
+        BatchSummary summary = processor.run(archive + "/**/orders*.xml");
+
+        assertEquals(2, summary.getFiles());
+        assertEquals(0, summary.getFailedFiles());
+        assertTrue(Files.isRegularFile(output.resolve("a/Sony1.xml")));
+        assertTrue(Files.isRegularFile(output.resolve("b/Sony1.xml")));
+    }
+}
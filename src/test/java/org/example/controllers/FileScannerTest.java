@@ -1,16 +1,27 @@
 package org.example.controllers;
 
+import com.thoughtworks.xstream.io.StreamException;
 import org.example.configuration.Configuration;
+import org.example.models.FileProcessingResult;
+import org.example.models.Orders;
+import org.example.models.ProductColumns;
+import org.example.service.Quarantine;
 import org.example.service.SerializationService;
 import org.example.service.XmlWriter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -103,6 +114,12 @@ class FileScannerTest {
         assertTrue(fileScanner.validateFileNamePattern(fileName));
     }
 
+    @Test
+    public void verifyFileName_compressedNameContainsNumber_returnsTrue() {
+        String fileName = String.format("%s12%s.gz", configuration.getInputFileNamePrefix(), configuration.getInputFileExtension());
+        assertTrue(fileScanner.validateFileNamePattern(fileName));
+    }
+
     @Test
     public void handleEvent_xmlFile_createsOutputFiles() {
         File directory = new File(configuration.getOutputDirectory());
@@ -111,6 +128,15 @@ class FileScannerTest {
         assertNotEquals(length, directory.list().length);
     }
 
+    @Test
+    public void handleEvent_routedOutputDirectory_createsOutputFilesThere(@TempDir Path outputDirectory) {
+        FileProcessingResult result = fileScanner.handleEvent("orders_test.xml", "test", outputDirectory);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, outputDirectory.toFile().list().length);
+        result.getOutputs().forEach(output -> assertEquals(outputDirectory, Path.of(output.getPath()).getParent()));
+    }
+
     @Test
     public void handleEvent_WrongXmlFile_createsOutputFiles() throws IOException {
         File directory = new File(configuration.getOutputDirectory());
@@ -130,4 +156,135 @@ class FileScannerTest {
         assertEquals(length, directory.length());
     }
 
+    @Test
+    public void processFile_readFailsWithIOException_retriesInsteadOfDeadLettering(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("orders7.xml");
+        Files.copy(Path.of("test/orders_test.xml"), file);
+        SerializationService<Orders> failingReads = new SerializationService<>() {
+            @Override
+            public Orders deserialize(File xml) {
+                throw new StreamException(new IOException("Input/output error"));
+            }
+
+            @Override
+            public ProductColumns deserializeColumns(File xml) {
+                throw new StreamException(new IOException("Input/output error"));
+            }
+        };
+        FileScanner scanner = new FileScanner(failingReads, new SerializationService<>(), new XmlWriter());
+        Path errors = directory.resolve("error");
+        RetryScheduler retryScheduler = new RetryScheduler(3, 60_000, 60_000, new Quarantine(errors, Clock.systemUTC()));
+        retryScheduler.start(retried -> {
+        });
+        ProcessingJournal journal = new ProcessingJournal(directory.resolve("journal"));
+        FingerprintCache fingerprints = new FingerprintCache(directory.resolve("fingerprints"), 16);
+        try {
+            scanner.processFile(file, journal, fingerprints, retryScheduler);
+        } finally {
+            retryScheduler.shutdown();
+            journal.close();
+            fingerprints.close();
+        }
+
+        assertEquals(1, retryScheduler.getAttempts(file));
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(errors));
+    }
+
+    @Test
+    public void processFile_identicalToRewrittenFile_writesOwnContent(@TempDir Path directory) throws IOException {
+        int first = ThreadLocalRandom.current().nextInt(100_000, 500_000);
+        int second = first + 500_000;
+        String contentA = Files.readString(Path.of("test/orders_test.xml"));
+        String contentB = contentA.replace("Sony 1", "Sony 1 refurbished");
+        Path output = Path.of(configuration.getOutputDirectory());
+        RetryScheduler retryScheduler = new RetryScheduler(1, 60_000, 60_000, new Quarantine(directory.resolve("error"), Clock.systemUTC()));
+        ProcessingJournal journal = new ProcessingJournal(directory.resolve("journal"));
+        FingerprintCache fingerprints = new FingerprintCache(directory.resolve("fingerprints"), 16);
+        try {
+            fileScanner.processFile(inputFile(directory, first, contentA), journal, fingerprints, retryScheduler);
+            String supplierFileA = Files.readString(output.resolve("Sony" + first + ".xml"));
+            fileScanner.processFile(inputFile(directory, first, contentB), journal, fingerprints, retryScheduler);
+            fileScanner.processFile(inputFile(directory, second, contentA), journal, fingerprints, retryScheduler);
+
+            assertTrue(Files.readString(output.resolve("Sony" + first + ".xml")).contains("Sony 1 refurbished"));
+            assertEquals(supplierFileA, Files.readString(output.resolve("Sony" + second + ".xml")));
+        } finally {
+            retryScheduler.shutdown();
+            journal.close();
+            fingerprints.close();
+            for (String supplier : new String[]{"Apple", "Panasonic", "Sony"}) {
+                Files.deleteIfExists(output.resolve(supplier + first + ".xml"));
+                Files.deleteIfExists(output.resolve(supplier + second + ".xml"));
+            }
+        }
+    }
+
+    private Path inputFile(Path directory, int number, String content) throws IOException {
+        Path file = directory.resolve(String.format("%s%d%s", configuration.getInputFileNamePrefix(), number, configuration.getInputFileExtension()));
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    public void watch_recursiveSameNameInSiblingFolders_keepsBothSupplierFiles() throws Exception {
+        int number = ThreadLocalRandom.current().nextInt(100_000, 1_000_000);
+        String fileName = String.format("%s%d%s", configuration.getInputFileNamePrefix(), number, configuration.getInputFileExtension());
+        Path inputA = Path.of(configuration.getInputDirectory(), "watch-a");
+        Path inputB = Path.of(configuration.getInputDirectory(), "watch-b");
+        Path outputA = Path.of(configuration.getOutputDirectory(), "watch-a");
+        Path outputB = Path.of(configuration.getOutputDirectory(), "watch-b");
+        Path journal = Path.of(configuration.getJournalFile());
+        Path fingerprints = Path.of(configuration.getFingerprintCacheFile());
+        boolean keepJournal = Files.exists(journal);
+        boolean keepFingerprints = Files.exists(fingerprints);
+        FileScanner recursiveScanner = new FileScanner(new SerializationService<>(), new SerializationService<>(), new XmlWriter(), true);
+        Thread watcher = new Thread(() -> {
+            try {
+                recursiveScanner.watch();
+            } catch (IOException | InterruptedException ignored) {
+            }
+        });
+        try {
+            Files.createDirectories(inputA);
+            Files.copy(Path.of("test/orders_test.xml"), inputA.resolve(fileName));
+            watcher.start();
+            Thread.sleep(500);
+            Files.createDirectories(inputB);
+            Files.copy(Path.of("test/orders_test.xml"), inputB.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (System.currentTimeMillis() < deadline
+                    && !(Files.exists(outputA.resolve("Sony" + number + ".xml")) && Files.exists(outputB.resolve("Sony" + number + ".xml")))) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(Files.exists(outputA.resolve("Sony" + number + ".xml")));
+            assertTrue(Files.exists(outputB.resolve("Sony" + number + ".xml")));
+            assertFalse(Files.exists(Path.of(configuration.getOutputDirectory(), "Sony" + number + ".xml")));
+        } finally {
+            watcher.interrupt();
+            watcher.join(10_000);
+            for (Path directory : new Path[]{inputA, inputB, outputA, outputB}) {
+                deleteRecursively(directory);
+            }
+            if (!keepJournal) {
+                Files.deleteIfExists(journal);
+            }
+            if (!keepFingerprints) {
+                Files.deleteIfExists(fingerprints);
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.controllers;
+
+import org.example.configuration.SchedulingPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSchedulerTest {
+    private static final int MEGABYTE = 1024 * 1024;
+    private final Clock clock = Clock.fixed(Instant.parse("2022-10-25T10:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void priorityOf_smallestFirst_ranksSmallFileFirst() throws IOException {
+        FileScheduler scheduler = new FileScheduler(SchedulingPolicy.SMALLEST_FIRST, 100, file -> "", clock);
+
+        long large = scheduler.priorityOf(createFile("orders1.xml", 10 * MEGABYTE));
+        long small = scheduler.priorityOf(createFile("orders2.xml", 1024));
+
+        assertTrue(small < large);
+        assertEquals(1000, large - clock.millis());
+    }
+
+    @Test
+    public void priorityOf_smallestFirstAfterPenalty_ranksWaitingLargeFileFirst() throws IOException {
+        Path largeFile = createFile("orders1.xml", 10 * MEGABYTE);
+        Path smallFile = createFile("orders2.xml", 1024);
+
+        long large = new FileScheduler(SchedulingPolicy.SMALLEST_FIRST, 100, file -> "", clock).priorityOf(largeFile);
+        Clock later = Clock.offset(clock, Duration.ofMillis(1001));
+        long small = new FileScheduler(SchedulingPolicy.SMALLEST_FIRST, 100, file -> "", later).priorityOf(smallFile);
+
+        assertTrue(large < small);
+    }
+
+    @Test
+    public void priorityOf_fairShare_interleavesFeeds() throws IOException {
+        FileScheduler scheduler = new FileScheduler(SchedulingPolicy.FAIR_SHARE, 100,
+                file -> String.valueOf(file.getFileName()).substring(0, 1), clock);
+
+        long busy1 = scheduler.priorityOf(createFile("a1.xml", MEGABYTE));
+        long busy2 = scheduler.priorityOf(createFile("a2.xml", MEGABYTE));
+        long busy3 = scheduler.priorityOf(createFile("a3.xml", MEGABYTE));
+        long quiet = scheduler.priorityOf(createFile("b1.xml", MEGABYTE));
+
+        assertTrue(busy1 < busy2 && busy2 < busy3);
+        assertTrue(quiet < busy2);
+    }
+
+    @Test
+    public void priorityOf_oldestFirst_ranksByModificationTime() throws IOException {
+        FileScheduler scheduler = new FileScheduler(SchedulingPolicy.OLDEST_FIRST, 0, file -> "", clock);
+        Path newer = createFile("orders1.xml", 10);
+        Path older = createFile("orders2.xml", 10);
+        Files.setLastModifiedTime(newer, FileTime.from(clock.instant().minusSeconds(10)));
+        Files.setLastModifiedTime(older, FileTime.from(clock.instant().minusSeconds(60)));
+
+        assertTrue(scheduler.priorityOf(older) < scheduler.priorityOf(newer));
+    }
+
+    private Path createFile(String name, int size) throws IOException {
+        return Files.write(directory.resolve(name), new byte[size]);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.controllers;
+
+import org.example.models.FileProcessingResult;
+import org.example.models.OutputFileResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FingerprintCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void record_cacheReopened_returnsOutputs() throws IOException {
+        Path cacheFile = directory.resolve("fingerprints.cache");
+        FingerprintCache cache = new FingerprintCache(cacheFile, 10);
+        cache.record("abc", result("orders1.xml", 1, "Sony;Japan"));
+        cache.close();
+
+        FingerprintCache reopened = new FingerprintCache(cacheFile, 10);
+        FileProcessingResult result = reopened.get("abc");
+
+        assertEquals("orders1.xml", result.getFileName());
+        assertEquals(1, result.getFileNumber());
+        assertEquals(120, result.getInputBytes());
+        OutputFileResult output = result.getOutputs().get(0);
+        assertEquals("Sony;Japan", output.getSupplier());
+        assertEquals("output/Sony;Japan1.xml", output.getPath());
+        assertEquals(2, output.getProductCount());
+        assertNull(reopened.get("def"));
+    }
+
+    @Test
+    public void record_sizeLimitReached_evictsLeastRecentlyUsed() throws IOException {
+        Path cacheFile = directory.resolve("fingerprints.cache");
+        FingerprintCache cache = new FingerprintCache(cacheFile, 2);
+        cache.record("a", result("orders1.xml", 1, "Sony"));
+        cache.record("b", result("orders2.xml", 2, "Sony"));
+        cache.get("a");
+        cache.record("c", result("orders3.xml", 3, "Sony"));
+        cache.record("d", result("orders4.xml", 4, "Sony"));
+        cache.record("e", result("orders5.xml", 5, "Sony"));
+        cache.close();
+
+        FingerprintCache reopened = new FingerprintCache(cacheFile, 2);
+
+        assertEquals(2, reopened.size());
+        assertNull(reopened.get("a"));
+        assertEquals("orders5.xml", reopened.get("e").getFileName());
+        assertTrue(Files.readAllLines(cacheFile).size() <= 4);
+    }
+
+    @Test
+    public void forgetOutputs_outputRewritten_entryStaysForgottenAfterReopen() throws IOException {
+        Path cacheFile = directory.resolve("fingerprints.cache");
+        FingerprintCache cache = new FingerprintCache(cacheFile, 10);
+        cache.record("a", result("orders5.xml", 5, "Sony"));
+        cache.record("b", result("orders6.xml", 6, "Sony"));
+        cache.forgetOutputs(result("orders5.xml", 5, "Sony").getOutputs());
+        cache.close();
+
+        FingerprintCache reopened = new FingerprintCache(cacheFile, 10);
+
+        assertNull(reopened.get("a"));
+        assertEquals("orders6.xml", reopened.get("b").getFileName());
+    }
+
+    private FileProcessingResult result(String fileName, int fileNumber, String supplier) {
+        OutputFileResult output = new OutputFileResult(supplier, String.format("output/%s%d.xml", supplier, fileNumber), 2, null);
+        return new FileProcessingResult(fileName, fileNumber, 120, List.of(output), null);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessingJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void record_journalReopened_fileIsProcessed() throws IOException {
+        Path journalFile = directory.resolve("processed.journal");
+        ProcessingJournal journal = new ProcessingJournal(journalFile);
+        journal.record("orders1.xml", 1, "abc");
+        journal.close();
+
+        ProcessingJournal reopened = new ProcessingJournal(journalFile);
+
+        assertTrue(reopened.isProcessed("orders1.xml", "abc"));
+        assertFalse(reopened.isProcessed("orders1.xml", "def"));
+        assertFalse(reopened.isProcessed("orders2.xml", "abc"));
+    }
+
+    @Test
+    public void record_journalEndsWithPartialLine_startsNewLine() throws IOException {
+        Path journalFile = directory.resolve("processed.journal");
+        Files.writeString(journalFile, "orders1.xml;1;abc\norders2.xml;2");
+        ProcessingJournal journal = new ProcessingJournal(journalFile);
+        journal.record("orders3.xml", 3, "ghi");
+        journal.close();
+
+        ProcessingJournal reopened = new ProcessingJournal(journalFile);
+
+        assertTrue(reopened.isProcessed("orders1.xml", "abc"));
+        assertFalse(reopened.isProcessed("orders2.xml", "def"));
+        assertTrue(reopened.isProcessed("orders3.xml", "ghi"));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.controllers;
+
+import org.example.configuration.SchedulingPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessingPipelineTest {
+
+    @Test
+    public void submit_filesEnqueued_everyFileIsHandled() throws InterruptedException {
+        List<Path> handled = new CopyOnWriteArrayList<>();
+        ProcessingPipeline pipeline = new ProcessingPipeline(2, 4, handled::add);
+
+        for (int i = 0; i < 10; i++) {
+            pipeline.submit(Path.of(String.format("orders%d.xml", i)));
+        }
+        pipeline.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(10, handled.size());
+    }
+
+    @Test
+    public void submit_smallestFirstScheduler_handlesQueuedSmallFileFirst(@TempDir Path directory) throws InterruptedException, IOException {
+        Path large = Files.write(directory.resolve("orders1.xml"), new byte[4 * 1024 * 1024]);
+        Path small = Files.write(directory.resolve("orders2.xml"), new byte[1024]);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Path> handled = new CopyOnWriteArrayList<>();
+        FileScheduler scheduler = new FileScheduler(SchedulingPolicy.SMALLEST_FIRST, 1000, file -> "", Clock.systemUTC());
+        ProcessingPipeline pipeline = new ProcessingPipeline(1, 4, scheduler, file -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(file);
+        });
+
+        pipeline.submit(Path.of("orders0.xml"));
+        pipeline.submit(large);
+        pipeline.submit(small);
+        release.countDown();
+        pipeline.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Path.of("orders0.xml"), small, large), handled);
+    }
+
+    @Test
+    public void submit_queueIsFull_blocksUntilAWorkerIsFree() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ProcessingPipeline pipeline = new ProcessingPipeline(1, 1, file -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        pipeline.submit(Path.of("orders1.xml"));
+        pipeline.submit(Path.of("orders2.xml"));
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                pipeline.submit(Path.of("orders3.xml"));
+                submitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        pipeline.shutdown(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.controllers;
+
+import org.example.configuration.ReadinessStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadinessMonitorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void whenReady_fileStopsChanging_callsOnReady() throws IOException, InterruptedException {
+        ReadinessMonitor monitor = new ReadinessMonitor(ReadinessStrategy.STABLE_SIZE, 100, 20);
+        Path file = Files.writeString(directory.resolve("orders1.xml"), "<orders>");
+        CountDownLatch ready = new CountDownLatch(1);
+
+        monitor.whenReady(file, readyFile -> ready.countDown(), abandonedFile -> {
+        });
+
+        assertFalse(ready.await(50, TimeUnit.MILLISECONDS));
+        assertTrue(ready.await(5, TimeUnit.SECONDS));
+        monitor.shutdown();
+    }
+
+    @Test
+    public void whenReady_fileDoesNotExist_callsOnAbandoned() throws InterruptedException {
+        ReadinessMonitor monitor = new ReadinessMonitor(ReadinessStrategy.STABLE_SIZE, 100, 20);
+        CountDownLatch abandoned = new CountDownLatch(1);
+
+        monitor.whenReady(directory.resolve("orders2.xml"), readyFile -> {
+        }, abandonedFile -> abandoned.countDown());
+
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+        monitor.shutdown();
+    }
+
+    @Test
+    public void whenReady_onReadyBlocks_otherFilesStillPolled() throws IOException, InterruptedException {
+        ReadinessMonitor monitor = new ReadinessMonitor(ReadinessStrategy.STABLE_SIZE, 50, 10, 10);
+        Path blocking = Files.writeString(directory.resolve("orders4.xml"), "<orders>");
+        Path missing = directory.resolve("orders5.xml");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch abandoned = new CountDownLatch(1);
+
+        monitor.whenReady(blocking, readyFile -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, abandonedFile -> {
+        });
+        Thread.sleep(200);
+        monitor.whenReady(missing, readyFile -> {
+        }, abandonedFile -> abandoned.countDown());
+
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        monitor.shutdown();
+    }
+
+    @Test
+    public void whenReady_maxPendingReached_blocksCaller() throws IOException, InterruptedException {
+        ReadinessMonitor monitor = new ReadinessMonitor(ReadinessStrategy.NONE, 0, 0, 1);
+        Path first = Files.writeString(directory.resolve("orders6.xml"), "<orders>");
+        Path second = Files.writeString(directory.resolve("orders7.xml"), "<orders>");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondReady = new CountDownLatch(1);
+
+        monitor.whenReady(first, readyFile -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, abandonedFile -> {
+        });
+        Thread caller = new Thread(() -> {
+            try {
+                monitor.whenReady(second, readyFile -> secondReady.countDown(), abandonedFile -> {
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        caller.start();
+
+        caller.join(200);
+        assertTrue(caller.isAlive());
+        release.countDown();
+        assertTrue(secondReady.await(5, TimeUnit.SECONDS));
+        caller.join(5000);
+        assertFalse(caller.isAlive());
+        monitor.shutdown();
+    }
+
+    @Test
+    public void dataFileOf_doneMarker_returnsDataFile() {
+        ReadinessMonitor monitor = new ReadinessMonitor(ReadinessStrategy.DONE_MARKER, 0, 0);
+        Path marker = directory.resolve("orders3.xml.done");
+
+        assertTrue(monitor.isDoneMarker(marker));
+        assertEquals(directory.resolve("orders3.xml"), monitor.dataFileOf(marker));
+        monitor.shutdown();
+    }
+}
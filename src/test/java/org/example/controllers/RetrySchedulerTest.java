@@ -0,0 +1,94 @@
+package org.example.controllers;
+
+import org.example.service.Quarantine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetrySchedulerTest {
+    private RetryScheduler retryScheduler;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void cleanup() {
+        if (retryScheduler != null) {
+            retryScheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void delayOf_attempts_doublesUpToMaxDelay() {
+        retryScheduler = createRetryScheduler(10, 1000, 5000);
+
+        assertEquals(1000, retryScheduler.delayOf(1));
+        assertEquals(2000, retryScheduler.delayOf(2));
+        assertEquals(4000, retryScheduler.delayOf(3));
+        assertEquals(5000, retryScheduler.delayOf(4));
+        assertEquals(5000, retryScheduler.delayOf(60));
+    }
+
+    @Test
+    public void failed_transientError_resubmitsFileAfterDelay() throws IOException, InterruptedException {
+        retryScheduler = createRetryScheduler(3, 10, 100);
+        Path file = Files.writeString(directory.resolve("orders1.xml"), "<orders/>");
+        CountDownLatch resubmitted = new CountDownLatch(1);
+        retryScheduler.start(retried -> resubmitted.countDown());
+
+        retryScheduler.failed(file, new IOException("Disk full"), true);
+
+        assertTrue(resubmitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, retryScheduler.getAttempts(file));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    public void failed_lastAttempt_movesFileToErrorFolderWithReason() throws IOException {
+        retryScheduler = createRetryScheduler(2, 10, 100);
+        Path file = Files.writeString(directory.resolve("orders1.xml"), "<orders/>");
+        retryScheduler.start(retried -> {
+        });
+
+        retryScheduler.failed(file, new IOException("Disk full"), true);
+        retryScheduler.failed(file, new IOException("Disk full"), true);
+
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("error/orders1.xml")));
+        String reason = Files.readString(directory.resolve("error/orders1.xml.error.txt"));
+        assertTrue(reason.contains("attempts=2"));
+        assertTrue(reason.contains("type=java.io.IOException"));
+        assertTrue(reason.contains("error=Disk full"));
+        assertEquals(0, retryScheduler.getAttempts(file));
+    }
+
+    @Test
+    public void failed_permanentError_movesFileWithoutRetry() throws IOException {
+        retryScheduler = createRetryScheduler(3, 10, 100);
+        Path file = Files.writeString(directory.resolve("orders1.xml"), "<ordesr/>");
+        retryScheduler.start(retried -> {
+            throw new AssertionError("File must not be retried");
+        });
+
+        retryScheduler.failed(file, new IllegalStateException("Unknown root element"), false);
+
+        assertEquals(0, retryScheduler.getPendingRetries());
+        assertTrue(Files.readString(directory.resolve("error/orders1.xml.error.txt")).contains("attempts=1"));
+    }
+
+    private RetryScheduler createRetryScheduler(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+        return new RetryScheduler(maxAttempts, initialDelayMillis, maxDelayMillis,
+                new Quarantine(directory.resolve("error"), Clock.systemUTC()));
+    }
+}
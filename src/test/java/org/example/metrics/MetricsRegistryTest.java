@@ -0,0 +1,80 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+    @Test
+    public void scrape_recordedTimer_containsCumulativeHistogram() {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        Timer timer = metrics.timer("stage_seconds", "Stage time");
+        timer.record(400_000L);
+        timer.record(3_000_000L);
+        timer.record(20_000_000_000L);
+
+        String scrape = metrics.scrape();
+
+        assertTrue(scrape.contains("# TYPE xml_processor_stage_seconds histogram\n"));
+        assertTrue(scrape.contains("xml_processor_stage_seconds_bucket{le=\"5.0E-4\"} 1\n"));
+        assertTrue(scrape.contains("xml_processor_stage_seconds_bucket{le=\"0.005\"} 2\n"));
+        assertTrue(scrape.contains("xml_processor_stage_seconds_bucket{le=\"10.0\"} 2\n"));
+        assertTrue(scrape.contains("xml_processor_stage_seconds_bucket{le=\"+Inf\"} 3\n"));
+        assertTrue(scrape.contains("xml_processor_stage_seconds_count 3\n"));
+    }
+
+    @Test
+    public void counter_disabledRegistry_recordsNothing() {
+        MetricsRegistry metrics = new MetricsRegistry(false);
+        Counter counter = metrics.counter("files_total", "Files");
+        Timer timer = metrics.timer("stage_seconds", "Stage time");
+        metrics.gauge("queue_depth", "Queue depth", () -> 5);
+
+        counter.increment();
+        timer.stop(timer.start());
+
+        assertEquals(0, counter.getValue());
+        assertEquals(0, timer.getCount());
+        assertEquals(0, timer.start());
+        assertTrue(metrics.snapshot().keySet().stream().noneMatch(name -> name.endsWith("queue_depth")));
+    }
+
+    @Test
+    public void httpServer_getMetrics_returnsPrometheusText() throws IOException, InterruptedException {
+        MetricsRegistry metrics = new MetricsRegistry(true);
+        metrics.counter("files_total", "Files").add(3);
+        metrics.gauge("queue_depth", "Queue depth", () -> 5);
+        MetricsHttpServer server = new MetricsHttpServer(metrics, "127.0.0.1", 0);
+        server.start();
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create(String.format("http://127.0.0.1:%d/metrics", server.getPort()))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("xml_processor_files_total 3\n"));
+            assertTrue(response.body().contains("xml_processor_queue_depth 5\n"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void invoke_anyOperation_throwsReflectionException() {
+        MetricsMBean mBean = new MetricsMBean(new MetricsRegistry(true));
+
+        ReflectionException exception = assertThrows(ReflectionException.class, () -> mBean.invoke("reset", null, null));
+
+        assertInstanceOf(NoSuchMethodException.class, exception.getTargetException());
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.models;
+
+import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
+import org.example.configuration.BindingEngine;
+import org.example.service.PrettyXmlWriter;
+import org.example.service.SerializationService;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductColumnsTest {
+    @Test
+    public void of_ordersObject_groupsProductsBySupplier() {
+        Orders orders = new Orders(List.of(
+                new Order(null, 1, List.of(
+                        new Product("product1", "gtin1", new Price("USD", 25.5F), "supplier1", null),
+                        new Product("product2", "gtin2", new Price("EUR", 10F), "supplier2", null))),
+                new Order(null, 2, List.of(
+                        new Product("product3", "gtin1", null, "supplier1", null)))));
+
+        ProductColumns columns = ProductColumns.of(orders);
+
+        assertEquals(3, columns.size());
+        assertEquals(2, columns.getOrderCount());
+        assertEquals(2, columns.getSupplierCount());
+        assertEquals(2, columns.getGtinCount());
+        assertEquals(2, columns.getCurrencyCount());
+        assertEquals("supplier1", columns.getSupplier(0));
+        assertEquals(2, columns.getProductCount(0));
+        int last = columns.getProductIndex(0, 1);
+        assertEquals("product3", columns.getDescription(last));
+        assertEquals("gtin1", columns.getGtin(last));
+        assertEquals(2, columns.getOrderId(last));
+        assertFalse(columns.hasPrice(last));
+    }
+
+    @Test
+    public void serializeSupplier_ordersXmlFile_matchesSupplierProducts() {
+        for (BindingEngine bindingEngine : BindingEngine.values()) {
+            SerializationService<Orders> ordersService = new SerializationService<>(bindingEngine);
+            SerializationService<SupplierProducts> productsService = new SerializationService<>(bindingEngine);
+            File file = new File("test/orders_test.xml");
+
+            ProductColumns columns = ordersService.deserializeColumns(file);
+            Orders orders = ordersService.deserialize(file);
+
+            assertEquals(orders.getOrders().size(), columns.getOrderCount());
+            for (int supplierId = 0; supplierId < columns.getSupplierCount(); supplierId++) {
+                SupplierProducts supplierProducts = group(orders, columns.getSupplier(supplierId));
+                int id = supplierId;
+                assertEquals(render(writer -> productsService.serialize(supplierProducts, writer)),
+                        render(writer -> productsService.serializeSupplier(columns, id, writer)));
+            }
+        }
+    }
+
+    @Test
+    public void deserializeColumns_wrongTagOrder_throwsUnknownFieldException() {
+        for (BindingEngine bindingEngine : BindingEngine.values()) {
+            SerializationService<Orders> service = new SerializationService<>(bindingEngine);
+            File file = new File("test/orders_test_UnknownFieldException.xml");
+
+            assertThrows(AbstractReflectionConverter.UnknownFieldException.class, () -> service.deserializeColumns(file));
+        }
+    }
+
+    private SupplierProducts group(Orders orders, String supplier) {
+        SupplierProducts supplierProducts = new SupplierProducts(supplier);
+        for (Order order : orders.getOrders()) {
+            for (Product product : order.getProducts()) {
+                if (supplier.equals(product.getSupplier())) {
+                    product.setOrderID(order.getID());
+                    product.setSupplier(null);
+                    supplierProducts.addProduct(product);
+                }
+            }
+        }
+        return supplierProducts;
+    }
+
+    private String render(Consumer<PrettyXmlWriter> content) {
+        StringWriter output = new StringWriter();
+        PrettyXmlWriter writer = new PrettyXmlWriter(output);
+        writer.startDocument();
+        content.accept(writer);
+        writer.endDocument();
+        return output.toString();
+    }
+}
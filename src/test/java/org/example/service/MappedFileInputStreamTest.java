@@ -0,0 +1,71 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class MappedFileInputStreamTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void read_fileLargerThanChunk_returnsWholeContent() throws IOException {
+        Path file = Path.of("test/orders_test.xml");
+
+        try (InputStream inputStream = new MappedFileInputStream(file, 7)) {
+            assertArrayEquals(Files.readAllBytes(file), inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void skip_acrossChunks_continuesAtRightPosition() throws IOException {
+        Path file = directory.resolve("numbers.txt");
+        Files.writeString(file, "0123456789abcdef");
+
+        try (InputStream inputStream = new MappedFileInputStream(file, 4)) {
+            assertEquals('0', inputStream.read());
+            assertEquals(2, inputStream.skip(2));
+            assertEquals('3', inputStream.read());
+            assertEquals(6, inputStream.skip(6));
+            assertEquals('a', inputStream.read());
+            assertEquals(5, inputStream.available());
+            assertEquals(5, inputStream.skip(100));
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @Test
+    public void skip_atEndOfFile_returnsZero() throws IOException {
+        Path empty = Files.createFile(directory.resolve("empty.txt"));
+        Path file = Files.writeString(directory.resolve("letters.txt"), "abcd");
+
+        try (InputStream emptyStream = new MappedFileInputStream(empty, 4);
+             InputStream inputStream = new MappedFileInputStream(file, 2)) {
+            assertEquals(0, emptyStream.skip(1));
+            assertEquals(4, inputStream.skip(10));
+            assertEquals(0, inputStream.skip(1));
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @Test
+    public void open_sizeThreshold_choosesMappedOrBufferedStream() throws IOException {
+        Path file = Path.of("test/orders_test.xml");
+        long size = Files.size(file);
+
+        try (InputStream mapped = InputFiles.open(file, size, 1024);
+             InputStream buffered = InputFiles.open(file, size + 1, 1024)) {
+            assertInstanceOf(MappedFileInputStream.class, mapped);
+            assertInstanceOf(BufferedInputStream.class, buffered);
+        }
+    }
+}
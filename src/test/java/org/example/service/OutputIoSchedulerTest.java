@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutputIoSchedulerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void open_contentLargerThanBuffer_writesOneCallPerFullBuffer() throws IOException {
+        OutputIoScheduler scheduler = new OutputIoScheduler(0, 16, 4, 4);
+        Counter writeCalls = MetricsRegistry.getInstance().counter("io_write_calls_total", "Write calls issued on output file channels");
+        String content = "<products><product>Sony 1</product><product>Apple 2</product></products>";
+        Path file = directory.resolve("Sony1.xml");
+
+        long writeCallsBefore = writeCalls.getValue();
+        try (OutputStream outputStream = scheduler.open(file, false)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(content, Files.readString(file));
+        assertEquals((content.length() + 15) / 16, writeCalls.getValue() - writeCallsBefore);
+    }
+
+    @Test
+    public void open_fileMuchLargerThanBuffersInFlight_neverHoldsWholeFile() throws IOException {
+        OutputIoScheduler scheduler = new OutputIoScheduler(1, 64, 2, 3);
+        String line = "<product>Panasonic TV</product>\n";
+        Path file = directory.resolve("Panasonic1.xml");
+
+        try (OutputStream outputStream = scheduler.open(file, true)) {
+            for (int i = 0; i < 10_000; i++) {
+                outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(line.length() * 10_000L, Files.size(file));
+        assertTrue(scheduler.getBufferPool().getCreated() <= 3, String.valueOf(scheduler.getBufferPool()));
+    }
+
+    @Test
+    public void open_manySuppliersConcurrently_everyFileIsComplete() throws Exception {
+        OutputIoScheduler scheduler = new OutputIoScheduler(2, 64, 2, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int supplier = i;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try (OutputStream outputStream = scheduler.open(directory.resolve("Supplier" + supplier + ".xml"), false)) {
+                        outputStream.write(("<products>" + "x".repeat(supplier * 10) + "</products>").getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("<products>" + "x".repeat(i * 10) + "</products>", Files.readString(directory.resolve("Supplier" + i + ".xml")));
+        }
+    }
+}
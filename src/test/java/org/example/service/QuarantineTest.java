@@ -0,0 +1,55 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.SAXParseException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuarantineTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void move_parseError_movesFileAndWritesReport() throws IOException {
+        Path file = Files.writeString(directory.resolve("orders1.xml"), "<ordesr/>");
+        Quarantine quarantine = new Quarantine(directory.resolve("quarantine"),
+                Clock.fixed(Instant.parse("2022-10-25T10:00:00Z"), ZoneOffset.UTC));
+
+        Path target = quarantine.move(file, "validation", new SAXParseException("Unexpected element", null, null, 1, 9));
+
+        assertFalse(Files.exists(file));
+        assertEquals("<ordesr/>", Files.readString(target));
+        String report = Files.readString(directory.resolve("quarantine/orders1.xml.error.txt"));
+        assertTrue(report.contains("time=2022-10-25T10:00:00Z"));
+        assertTrue(report.contains("line=1"));
+        assertTrue(report.contains("column=9"));
+        assertTrue(report.contains("error=Unexpected element"));
+    }
+
+    @Test
+    public void move_sameFileNameTwice_keepsBothFilesAndReports() throws IOException {
+        Quarantine quarantine = new Quarantine(directory.resolve("error"), Clock.systemUTC());
+        Path first = Files.writeString(Files.createDirectories(directory.resolve("a")).resolve("orders1.xml"), "first");
+        Path second = Files.writeString(Files.createDirectories(directory.resolve("b")).resolve("orders1.xml"), "second");
+
+        Path firstTarget = quarantine.move(first, "processing", new IOException("disk full"), 3);
+        Path secondTarget = quarantine.move(second, "processing", new IOException("disk full"), 3);
+
+        assertEquals(directory.resolve("error/orders1.xml"), firstTarget);
+        assertEquals(directory.resolve("error/orders1.2.xml"), secondTarget);
+        assertEquals("first", Files.readString(firstTarget));
+        assertEquals("second", Files.readString(secondTarget));
+        assertTrue(Files.readString(directory.resolve("error/orders1.xml.error.txt")).contains(first.toString()));
+        assertTrue(Files.readString(directory.resolve("error/orders1.2.xml.error.txt")).contains(second.toString()));
+    }
+}
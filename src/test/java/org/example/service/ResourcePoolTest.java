@@ -0,0 +1,50 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResourcePoolTest {
+
+    @Test
+    public void borrow_afterWarmUp_reusesInstanceWithoutMiss() {
+        ResourcePool<Object> pool = new ResourcePool<>("test", 2, Object::new);
+        pool.warmUp(1);
+
+        Object first = pool.borrow();
+        pool.release(first);
+        Object second = pool.borrow();
+
+        assertSame(first, second);
+        assertEquals(1, pool.getCreated());
+        assertEquals(2, pool.getBorrows());
+        assertEquals(0, pool.getMisses());
+    }
+
+    @Test
+    public void borrow_poolIsEmpty_createsInstanceAndCountsMiss() {
+        AtomicInteger counter = new AtomicInteger();
+        ResourcePool<Integer> pool = new ResourcePool<>("test", 1, counter::incrementAndGet);
+
+        pool.borrow();
+        pool.borrow();
+
+        assertEquals(2, pool.getCreated());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void release_poolIsFull_dropsInstance() {
+        ResourcePool<Object> pool = new ResourcePool<>("test", 1, Object::new);
+
+        Object first = pool.borrow();
+        Object second = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.getIdle());
+    }
+}
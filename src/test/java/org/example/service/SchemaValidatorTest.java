@@ -0,0 +1,52 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.SAXParseException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaValidatorTest {
+    private final SchemaValidator schemaValidator = new SchemaValidator("orders.xsd");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void validate_validFile_doesNotThrow() {
+        assertDoesNotThrow(() -> schemaValidator.validate(Path.of("test/orders_test.xml")));
+    }
+
+    @Test
+    public void validate_unknownRootElement_throwsAtFirstLine() {
+        SAXParseException exception = assertThrows(SAXParseException.class,
+                () -> schemaValidator.validate(Path.of("test/orders_test_CannotResolveClassException.xml")));
+
+        assertEquals(2, exception.getLineNumber());
+    }
+
+    @Test
+    public void validate_unknownProductField_throwsAtFieldLine() throws IOException {
+        Path file = directory.resolve("orders1.xml");
+        Files.writeString(file, """
+                <orders>
+                    <order created='2022-07-12T15:29' ID='1'>
+                        <product>
+                            <description>Sony 1</description>
+                            <colour>black</colour>
+                        </product>
+                    </order>
+                </orders>
+                """);
+
+        SAXParseException exception = assertThrows(SAXParseException.class, () -> schemaValidator.validate(file));
+
+        assertEquals(5, exception.getLineNumber());
+    }
+}
@@ -2,6 +2,7 @@ package org.example.service;
 
 import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
+import org.example.configuration.BindingEngine;
 import org.example.models.Order;
 import org.example.models.Orders;
 import org.example.models.Price;
@@ -9,11 +10,15 @@ import org.example.models.Product;
 import org.example.models.SupplierProducts;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -113,5 +118,84 @@ class SerializationServiceTest {
         assertThrows(CannotResolveClassException.class, () -> service.deserialize(file));
     }
 
+    @Test
+    public void serialize_ordersObjectWithStaxBinding_matchesXStreamBinding() {
+        Order order = new Order(
+                LocalDateTime.of(LocalDate.of(2022, 10, 25), LocalTime.of(20, 20, 1, 500_000_000)),
+                2,
+                List.of(
+                        new Product("Sony 54.6\" <Diag> & 'Xbr' é", "", new Price("U&\"S<D>", 2999.99F), "Sony", 1),
+                        new Product("product2", null, new Price(null, 25.5F), "supplier2", null)
+                ));
+        Orders orders = new Orders(List.of(order, new Order(null, 5, List.of())));
+
+        assertEquals(new SerializationService<Orders>(BindingEngine.XSTREAM).serialize(orders),
+                new SerializationService<Orders>(BindingEngine.STAX).serialize(orders));
+    }
+
+    @Test
+    public void serialize_supplierProductsToStreamWithStaxBinding_matchesXStreamBinding() {
+        SupplierProducts supplierProducts = new SupplierProducts("supplier");
+        supplierProducts.addProduct(new Product("product1", "", new Price("USD", 25.5F), null, 1));
+        supplierProducts.addProduct(new Product("product2", "asdas", new Price("USD", 1149.0F), null, 2));
+        StringWriter xStreamOutput = new StringWriter();
+        StringWriter staxOutput = new StringWriter();
+
+        new SerializationService<SupplierProducts>(BindingEngine.XSTREAM).serialize(supplierProducts, new PrettyXmlWriter(xStreamOutput));
+        new SerializationService<SupplierProducts>(BindingEngine.STAX).serialize(supplierProducts, new PrettyXmlWriter(staxOutput));
+
+        assertEquals(xStreamOutput.toString(), staxOutput.toString());
+    }
+
+    @Test
+    public void serialize_ordersObjectToSink_matchesUtf8EncodedString() {
+        Order order = new Order(
+                LocalDateTime.of(LocalDate.of(2022, 10, 25), LocalTime.of(20, 20)),
+                2,
+                List.of(new Product("Sony 54.6\" <Diag> & é \uD83D\uDCFA", "00027242816657", new Price("USD", 2999.99F), "Sony", 1)));
+        Orders orders = new Orders(List.of(order));
+
+        for (BindingEngine bindingEngine : BindingEngine.values()) {
+            SerializationService<Orders> service = new SerializationService<>(bindingEngine);
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+            service.serialize(orders, sink);
+
+            assertEquals(service.serialize(orders), sink.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void deserialize_ordersXmlFileWithStaxBinding_matchesXStreamBinding() {
+        File file = new File("test/orders_test.xml");
+
+        Orders expected = new SerializationService<Orders>(BindingEngine.XSTREAM).deserialize(file);
+        Orders actual = new SerializationService<Orders>(BindingEngine.STAX).deserialize(file);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(orderIDs(expected), orderIDs(actual));
+    }
+
+    @Test
+    public void deserialize_wrongTagOrderWithStaxBinding_throwsUnknownFieldException() {
+        SerializationService<Orders> service = new SerializationService<>(BindingEngine.STAX);
+        File file = new File("test/orders_test_UnknownFieldException.xml");
 
+        assertThrows(AbstractReflectionConverter.UnknownFieldException.class, () -> service.deserialize(file));
+    }
+
+    @Test
+    public void deserialize_wrongTagOrderWithStaxBinding_throwsCannotResolveClassException() {
+        SerializationService<Orders> service = new SerializationService<>(BindingEngine.STAX);
+        File file = new File("test/orders_test_CannotResolveClassException.xml");
+
+        assertThrows(CannotResolveClassException.class, () -> service.deserialize(file));
+    }
+
+    private static String orderIDs(Orders orders) {
+        return orders.getOrders().stream()
+                .flatMap(order -> order.getProducts().stream())
+                .map(product -> String.valueOf(product.getOrderID()))
+                .collect(Collectors.joining(","));
+    }
 }
@@ -0,0 +1,119 @@
+package org.example.service;
+
+import org.example.configuration.Configuration;
+import org.example.models.OutputFileResult;
+import org.example.models.Price;
+import org.example.models.Product;
+import org.example.models.SupplierProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.TransformerException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingOrderSplitterTest {
+    private static Configuration configuration;
+    private static XmlWriter xmlWriter;
+    private static StreamingOrderSplitter splitter;
+
+    private static void deleteOutputDirectory(Path outputDirPath) throws IOException {
+        if (Files.exists(outputDirPath)) {
+            File directory = new File(configuration.getOutputDirectory());
+            String[] list = directory.list();
+            if (list != null && list.length != 0) {
+                for (String s : list) {
+                    Files.delete(Path.of(configuration.getOutputDirectory(), s));
+                }
+            }
+            Files.delete(outputDirPath);
+        }
+    }
+
+    @BeforeAll
+    public static void setup() {
+        configuration = Configuration.getInstance();
+    }
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        deleteOutputDirectory(Path.of(configuration.getOutputDirectory()));
+        xmlWriter = new XmlWriter();
+        splitter = new StreamingOrderSplitter(xmlWriter);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        deleteOutputDirectory(Path.of(configuration.getOutputDirectory()));
+    }
+
+    @Test
+    public void split_ordersXmlFile_createsOneFilePerSupplier() throws IOException, XMLStreamException {
+        List<OutputFileResult> results = splitter.split(new File("test/orders_test.xml"), 7);
+
+        assertEquals(3, results.size());
+        String expected = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <products>
+                    <product>
+                        <description>Apple 1</description>
+                        <gtin>00885909464517</gtin>
+                        <price currency="USD">399.0</price>
+                        <orderid>1</orderid>
+                    </product>
+                    <product>
+                        <description>Apple 2</description>
+                        <gtin>00885909464043</gtin>
+                        <price currency="USD">1149.0</price>
+                        <orderid>2</orderid>
+                    </product>
+                </products>
+                """.replaceAll("\n", System.lineSeparator());
+        assertEquals(expected, Files.readString(Path.of(configuration.getOutputDirectory(), "Apple7.xml")));
+    }
+
+    @Test
+    public void split_specialCharacters_matchesPrettifiedOutput() throws IOException, XMLStreamException, SAXException, TransformerException {
+        SupplierProducts supplierProducts = new SupplierProducts("Sony");
+        supplierProducts.addProduct(new Product("Sony 54.6\" <Diag> & 'Xbr' é", "", new Price("U&\"S<D>", 2999.99F), null, 1));
+        String prettifiedPath = xmlWriter.createXmlFile("prettified");
+        xmlWriter.writeXmlFile(prettifiedPath, new SerializationService<SupplierProducts>().serialize(supplierProducts));
+        xmlWriter.prettifyXmlFile(prettifiedPath);
+
+        Path input = Path.of(configuration.getOutputDirectory(), "input.xml");
+        Files.writeString(input, "<orders><order ID=\"1\"><product>" +
+                "<description>Sony 54.6\" &lt;Diag&gt; &amp; 'Xbr' é</description><gtin></gtin>" +
+                "<price currency=\"U&amp;&quot;S&lt;D&gt;\">2999.99</price><supplier>Sony</supplier>" +
+                "</product></order></orders>");
+        List<OutputFileResult> results = splitter.split(input.toFile(), 8);
+
+        assertEquals(Files.readString(Path.of(prettifiedPath)), Files.readString(Path.of(results.get(0).getPath())));
+    }
+
+    @Test
+    public void split_wrongRootTag_throwsXMLStreamExceptionAndRemovesOutputs() {
+        assertThrows(XMLStreamException.class, () -> splitter.split(new File("test/orders_test_CannotResolveClassException.xml"), 9));
+        assertFalse(Files.exists(Path.of(configuration.getOutputDirectory(), "Sony9.xml")));
+    }
+
+    @Test
+    public void split_wrongProductTag_throwsXMLStreamExceptionAndRemovesOutputs() throws IOException {
+        Path input = Path.of(configuration.getOutputDirectory(), "input.xml");
+        Files.writeString(input, "<orders><order ID=\"1\"><product><supplier>Sony</supplier></product>" +
+                "<product><brand>Sony</brand></product></order></orders>");
+
+        assertThrows(XMLStreamException.class, () -> splitter.split(input.toFile(), 10));
+        assertFalse(Files.exists(Path.of(configuration.getOutputDirectory(), "Sony10.xml")));
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.service;
+
+import org.example.configuration.BindingEngine;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.Orders;
+import org.example.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringInternerTest {
+    private final MetricsRegistry metrics = new MetricsRegistry(true);
+
+    @Test
+    public void intern_equalStrings_returnsFirstInstance() {
+        StringInterner interner = new StringInterner(16, 64, metrics);
+        String first = new String("Sony");
+
+        interner.intern(first);
+        String second = interner.intern(new String("Sony"));
+
+        assertSame(first, second);
+        assertEquals(50, interner.getHitRatioPercent());
+    }
+
+    @Test
+    public void intern_stringLongerThanLimit_returnsSameString() {
+        StringInterner interner = new StringInterner(16, 4, metrics);
+
+        interner.intern(new String("Panasonic"));
+        String value = new String("Panasonic");
+
+        assertSame(value, interner.intern(value));
+    }
+
+    @Test
+    public void intern_disabledCache_returnsSameString() {
+        StringInterner interner = new StringInterner(0, 64, metrics);
+
+        interner.intern(new String("Sony"));
+        String value = new String("Sony");
+
+        assertSame(value, interner.intern(value));
+        assertEquals(0, interner.getCapacity());
+    }
+
+    @Test
+    public void deserialize_repeatedValues_sharesInstances() {
+        for (BindingEngine bindingEngine : BindingEngine.values()) {
+            StringInterner interner = new StringInterner(1024, 64, metrics);
+            SerializationService<Orders> service = new SerializationService<>(bindingEngine, interner);
+
+            List<Product> products = service.deserialize(new File("test/orders_test.xml")).getOrders().stream()
+                    .flatMap(order -> order.getProducts().stream())
+                    .toList();
+
+            Product apple = products.stream().filter(product -> "Apple".equals(product.getSupplier())).findFirst().orElseThrow();
+            Product otherApple = products.stream().filter(product -> "Apple".equals(product.getSupplier()))
+                    .filter(product -> product != apple).findFirst().orElseThrow();
+            assertSame(apple.getSupplier(), otherApple.getSupplier());
+            assertSame(products.get(0).getPrice().getCurrency(), products.get(products.size() - 1).getPrice().getCurrency());
+            assertTrue(interner.getHitRatioPercent() > 0);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.service;
+
+import org.example.configuration.FsyncPolicy;
+import org.example.models.Price;
+import org.example.models.Product;
+import org.example.models.SupplierProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SupplierFileAggregatorTest {
+    private final SerializationService<SupplierProducts> serializationService = new SerializationService<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-10-25T10:00:00Z"));
+    private SupplierFileAggregator aggregator;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void cleanup() {
+        if (aggregator != null) {
+            aggregator.close();
+        }
+    }
+
+    @Test
+    public void append_twoBatches_fileEqualsSingleDocument() throws IOException {
+        aggregator = createAggregator(0, 64);
+
+        String path = aggregator.append(supplierProducts("Sony", 1, 2));
+        aggregator.append(supplierProducts("Sony", 3));
+
+        assertEquals(directory.resolve("Sony-2022-10-25.xml").toString(), path);
+        assertEquals(document(supplierProducts("Sony", 1, 2, 3)), Files.readString(Path.of(path)));
+    }
+
+    @Test
+    public void append_periodChanged_startsNewFile() throws IOException {
+        aggregator = createAggregator(0, 64);
+
+        aggregator.append(supplierProducts("Sony", 1));
+        clock.instant = Instant.parse("2022-10-26T00:00:01Z");
+        String path = aggregator.append(supplierProducts("Sony", 2));
+
+        assertEquals(document(supplierProducts("Sony", 1)), Files.readString(directory.resolve("Sony-2022-10-25.xml")));
+        assertEquals(document(supplierProducts("Sony", 2)), Files.readString(Path.of(path)));
+    }
+
+    @Test
+    public void append_sizeLimitReached_rotatesToNextIndex() throws IOException {
+        long limit = document(supplierProducts("Sony", 1)).getBytes().length + 10;
+        aggregator = createAggregator(limit, 64);
+
+        aggregator.append(supplierProducts("Sony", 1));
+        String path = aggregator.append(supplierProducts("Sony", 2));
+
+        assertEquals(directory.resolve("Sony-2022-10-25-1.xml").toString(), path);
+        assertEquals(document(supplierProducts("Sony", 1)), Files.readString(directory.resolve("Sony-2022-10-25.xml")));
+        assertEquals(document(supplierProducts("Sony", 2)), Files.readString(Path.of(path)));
+    }
+
+    @Test
+    public void append_openFilesLimitReached_reopensEvictedFile() throws IOException {
+        aggregator = createAggregator(0, 1);
+
+        aggregator.append(supplierProducts("Sony", 1));
+        aggregator.append(supplierProducts("Apple", 2));
+        aggregator.append(supplierProducts("Sony", 3));
+
+        assertTrue(aggregator.getOpenFileCount() <= 1);
+        assertEquals(document(supplierProducts("Sony", 1, 3)), Files.readString(directory.resolve("Sony-2022-10-25.xml")));
+        assertEquals(document(supplierProducts("Apple", 2)), Files.readString(directory.resolve("Apple-2022-10-25.xml")));
+    }
+
+    @Test
+    public void append_sameInputAfterRestart_appendsOnce() throws IOException {
+        aggregator = createAggregator(0, 64);
+        SupplierProducts first = supplierProducts("Sony", 1, 2);
+        String path = aggregator.append("Sony", "checksum1", writer -> serializationService.serialize(first, writer));
+        aggregator.close();
+
+        aggregator = createAggregator(0, 64);
+        String repeated = aggregator.append("Sony", "checksum1", writer -> serializationService.serialize(first, writer));
+        SupplierProducts second = supplierProducts("Sony", 3);
+        aggregator.append("Sony", "checksum2", writer -> serializationService.serialize(second, writer));
+
+        String content = Files.readString(Path.of(path));
+        assertEquals(path, repeated);
+        assertTrue(content.contains("<!-- input checksum1 -->"));
+        assertEquals(document(supplierProducts("Sony", 1, 2, 3)), content.replaceAll("\\R {4}<!-- input checksum\\d -->", ""));
+    }
+
+    private SupplierFileAggregator createAggregator(long maxFileBytes, int maxOpenFiles) {
+        return new SupplierFileAggregator(serializationService, directory, "yyyy-MM-dd",
+                maxFileBytes, 60_000, maxOpenFiles, FsyncPolicy.NONE, clock);
+    }
+
+    private SupplierProducts supplierProducts(String supplier, int... orderIDs) {
+        SupplierProducts supplierProducts = new SupplierProducts(supplier);
+        for (int orderID : orderIDs) {
+            supplierProducts.addProduct(new Product(supplier + " " + orderID, "00027242816657",
+                    new Price("USD", 2999.99F), null, orderID));
+        }
+        return supplierProducts;
+    }
+
+    private String document(SupplierProducts supplierProducts) {
+        StringWriter output = new StringWriter();
+        PrettyXmlWriter writer = new PrettyXmlWriter(output);
+        writer.startDocument();
+        serializationService.serialize(supplierProducts, writer);
+        writer.endDocument();
+        return output.toString();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Utf8WriterTest {
+    @Test
+    public void write_mixedCharacters_matchesStringEncoding() throws IOException {
+        String text = "Sony & é Ω € 📺 ".repeat(1000);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Utf8Writer writer = Utf8Writer.forThread(output);
+
+        writer.write(text);
+        writer.detach();
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), output.toByteArray());
+    }
+
+    @Test
+    public void write_surrogatePairInSeparateCalls_encodesOneCodePoint() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Utf8Writer writer = Utf8Writer.forThread(output);
+
+        writer.write('\uD83D');
+        writer.write('\uDCFA');
+        writer.write('\uD83D');
+        writer.detach();
+
+        assertEquals("📺?", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void forThread_writerInUse_returnsSeparateWriter() throws IOException {
+        Utf8Writer first = Utf8Writer.forThread(new ByteArrayOutputStream());
+        Utf8Writer nested = Utf8Writer.forThread(new ByteArrayOutputStream());
+        first.detach();
+        nested.detach();
+
+        assertNotSame(first, nested);
+        assertSame(first, Utf8Writer.forThread(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void forThread_previousStreamFailed_reusesThreadWriter() throws IOException {
+        Utf8Writer failed = Utf8Writer.forThread(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                throw new IOException("disk full");
+            }
+        });
+        failed.write("<products>");
+        assertThrows(IOException.class, failed::detach);
+
+        Utf8Writer abandoned = Utf8Writer.forThread(new ByteArrayOutputStream());
+        abandoned.write("<products>");
+        abandoned.reset();
+
+        assertSame(failed, abandoned);
+        assertSame(failed, Utf8Writer.forThread(new ByteArrayOutputStream()));
+        failed.detach();
+    }
+}
@@ -1,6 +1,11 @@
 package org.example.service;
 
+import com.thoughtworks.xstream.io.StreamException;
+import org.example.configuration.CompressionCodec;
 import org.example.configuration.Configuration;
+import org.example.models.Price;
+import org.example.models.Product;
+import org.example.models.SupplierProducts;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,12 +15,17 @@ import org.xml.sax.SAXException;
 import javax.xml.transform.TransformerException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class XmlWriterTest {
     private static Configuration configuration;
@@ -182,4 +192,106 @@ class XmlWriterTest {
         assertEquals(prettifiedXmlString, xmlText);
     }
 
+    @Test
+    public void writePrettyXmlFile_supplierProducts_fileEqualsPrettifiedFile() throws IOException, TransformerException, SAXException {
+        SerializationService<SupplierProducts> service = new SerializationService<>();
+        SupplierProducts supplierProducts = new SupplierProducts("Apple");
+        supplierProducts.addProduct(new Product("Apple iPad 2 with Wi-Fi 16GB - iOS 5 - Black", "00885909464517", new Price("USD", 399.0F), null, 2343));
+        supplierProducts.addProduct(new Product("Apple MacBook Air A 11.6\" Mac OS X v10.7 & <Lion>", "", new Price("USD", 1149.0F), null, 2344));
+
+        String prettifiedPath = xmlWriter.createXmlFile("test6");
+        xmlWriter.writeXmlFile(prettifiedPath, service.serialize(supplierProducts));
+        xmlWriter.prettifyXmlFile(prettifiedPath);
+        String singlePassPath = xmlWriter.createXmlFile("test7");
+        xmlWriter.writePrettyXmlFile(singlePassPath, writer -> service.serialize(supplierProducts, writer));
+
+        assertEquals(Files.readString(Path.of(prettifiedPath)), Files.readString(Path.of(singlePassPath)));
+    }
+
+    @Test
+    public void writePrettyXmlFile_contentFails_targetIsNotCreatedAndNoTemporaryFileIsLeft() {
+        String path = xmlWriter.getXmlFilePath("test8");
+
+        assertThrows(IOException.class, () -> xmlWriter.writePrettyXmlFile(path, writer -> {
+            writer.startNode("products");
+            throw new StreamException(new IOException("disk full"));
+        }));
+        assertFalse(Files.exists(Path.of(path)));
+        assertEquals(0, new File(configuration.getOutputDirectory()).list().length);
+    }
+
+    @Test
+    public void publishXmlFile_temporaryFile_isMovedToSupplierFile() throws IOException {
+        String tempPath = xmlWriter.createTempXmlFile("test9");
+        Files.writeString(Path.of(tempPath), "<products/>");
+
+        String path = xmlWriter.publishXmlFile(tempPath, "test9");
+
+        assertEquals(xmlWriter.getXmlFilePath("test9"), path);
+        assertEquals("<products/>", Files.readString(Path.of(path)));
+        assertFalse(Files.exists(Path.of(tempPath)));
+    }
+
+    @Test
+    public void writePrettyXmlFile_publishedFile_hasDefaultPermissions() throws IOException {
+        assumeTrue(Files.getFileAttributeView(Path.of(configuration.getOutputDirectory()), PosixFileAttributeView.class) != null);
+        Path reference = Files.createFile(Path.of(configuration.getOutputDirectory(), "permissions.reference"));
+        String path = xmlWriter.getXmlFilePath("test14");
+        filePath = Path.of(path);
+        try {
+            xmlWriter.writePrettyXmlFile(path, writer -> writer.startNode("products"));
+
+            assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(filePath));
+        } finally {
+            Files.delete(reference);
+        }
+    }
+
+    @Test
+    public void linkXmlFile_existingSupplierFile_targetHasSameContent() throws IOException {
+        Path source = Path.of(xmlWriter.getXmlFilePath("test11"));
+        Files.writeString(source, "<products/>");
+        Path target = Path.of(xmlWriter.getXmlFilePath("test12"));
+        filePath = target;
+
+        String path = xmlWriter.linkXmlFile(source, target);
+
+        assertEquals(target.toString(), path);
+        assertEquals("<products/>", Files.readString(target));
+        Files.delete(source);
+        assertTrue(Files.exists(target));
+    }
+
+    @Test
+    public void writeXmlFile_serializedToSink_fileEqualsSerializedString() throws IOException {
+        SerializationService<SupplierProducts> service = new SerializationService<>();
+        SupplierProducts supplierProducts = new SupplierProducts("Apple");
+        supplierProducts.addProduct(new Product("Apple iPad 2 with Wi-Fi 16GB - iOS 5 - Black", "00885909464517", new Price("USD", 399.0F), null, 2343));
+        String path = xmlWriter.getXmlFilePath("test13");
+        filePath = Path.of(path);
+
+        xmlWriter.writeXmlFile(path, sink -> service.serialize(supplierProducts, sink));
+
+        assertEquals(service.serialize(supplierProducts), Files.readString(filePath));
+    }
+
+    @Test
+    public void writePrettyXmlFile_compressedOutput_decompressesToPlainFile() throws IOException {
+        SerializationService<SupplierProducts> service = new SerializationService<>();
+        SupplierProducts supplierProducts = new SupplierProducts("Apple");
+        supplierProducts.addProduct(new Product("Apple iPad 2 with Wi-Fi 16GB - iOS 5 - Black", "00885909464517", new Price("USD", 399.0F), null, 2343));
+        String plainPath = xmlWriter.getXmlFilePath("test10");
+        xmlWriter.writePrettyXmlFile(plainPath, writer -> service.serialize(supplierProducts, writer));
+
+        for (CompressionCodec codec : new CompressionCodec[]{CompressionCodec.GZIP, CompressionCodec.ZSTD}) {
+            XmlWriter compressedWriter = new XmlWriter(codec, 0);
+            String path = compressedWriter.getXmlFilePath("test10");
+            compressedWriter.writePrettyXmlFile(path, writer -> service.serialize(supplierProducts, writer));
+
+            assertTrue(path.endsWith(".xml" + codec.getExtension()));
+            try (InputStream inputStream = InputFiles.open(Path.of(path))) {
+                assertEquals(Files.readString(Path.of(plainPath)), new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
 }